@@ -9,6 +9,7 @@ import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 import org.embeddedt.modernfix.command.ModernFixCommands;
 import org.embeddedt.modernfix.core.ModernFixMixinPlugin;
+import org.embeddedt.modernfix.metrics.StartupTrace;
 import org.embeddedt.modernfix.platform.ModernFixPlatformHooks;
 import org.embeddedt.modernfix.resources.ReloadExecutor;
 import org.embeddedt.modernfix.util.ClassInfoManager;
@@ -71,6 +72,13 @@ public class ModernFix {
         if(ModernFixPlatformHooks.isDedicatedServer()) {
             float gameStartTime = ManagementFactory.getRuntimeMXBean().getUptime() / 1000f;
             ModernFix.LOGGER.warn("Dedicated server took " + gameStartTime + " seconds to load");
+            StartupTrace.recordSinceStart("Server start", "startup");
+            StartupTrace.write();
+            /* vanilla has its own watchdog for hung dedicated servers, ours is only needed for profiling */
+            if(IntegratedWatchdog.PROFILE_SLOW_TICKS) {
+                IntegratedWatchdog watchdog = new IntegratedWatchdog(ModernFixPlatformHooks.getCurrentServer());
+                watchdog.start();
+            }
         }
         ClassInfoManager.clear();
     }
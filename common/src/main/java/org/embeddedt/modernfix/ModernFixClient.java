@@ -13,6 +13,7 @@ import net.minecraft.world.entity.Entity;
 import org.embeddedt.modernfix.api.constants.IntegrationConstants;
 import org.embeddedt.modernfix.api.entrypoint.ModernFixClientIntegration;
 import org.embeddedt.modernfix.core.ModernFixMixinPlugin;
+import org.embeddedt.modernfix.metrics.StartupTrace;
 import org.embeddedt.modernfix.packet.EntityIDSyncPacket;
 import org.embeddedt.modernfix.platform.ModernFixPlatformHooks;
 import org.embeddedt.modernfix.world.IntegratedWatchdog;
@@ -65,6 +66,8 @@ public class ModernFixClient {
         } else if (openingScreen instanceof TitleScreen && gameStartTimeSeconds < 0) {
             gameStartTimeSeconds = ManagementFactory.getRuntimeMXBean().getUptime() / 1000f;
             ModernFix.LOGGER.warn("Game took " + gameStartTimeSeconds + " seconds to start");
+            StartupTrace.recordSinceStart("Game start", "startup");
+            StartupTrace.write();
         }
     }
 
@@ -85,6 +88,8 @@ public class ModernFixClient {
             float timeSpentLoading = ((float)(System.nanoTime() - worldLoadStartTime) / 1000000000f);
             ModernFix.LOGGER.warn("Time from main menu to in-game was " + timeSpentLoading + " seconds");
             ModernFix.LOGGER.warn("Total time to load game and open world was " + (timeSpentLoading + gameStartTimeSeconds) + " seconds");
+            StartupTrace.record("World join", "world", worldLoadStartTime);
+            StartupTrace.write();
             resetWorldLoadStateMachine();
         }
     }
@@ -188,7 +193,7 @@ public class ModernFixClient {
     }
 
     public void onServerStarted(MinecraftServer server) {
-        if(!ModernFixMixinPlugin.instance.isOptionEnabled("feature.integrated_server_watchdog.IntegratedWatchdog"))
+        if(!ModernFixMixinPlugin.instance.isOptionEnabled("feature.integrated_server_watchdog.IntegratedWatchdog") && !IntegratedWatchdog.PROFILE_SLOW_TICKS)
             return;
         IntegratedWatchdog watchdog = new IntegratedWatchdog(server);
         watchdog.start();
@@ -0,0 +1,43 @@
+package org.embeddedt.modernfix.api.helpers;
+
+import net.minecraft.server.level.ServerChunkCache;
+import net.minecraft.server.level.ServerLevel;
+import net.minecraft.world.level.chunk.ChunkAccess;
+import net.minecraft.world.level.chunk.ChunkStatus;
+import org.embeddedt.modernfix.duck.IServerChunkCache;
+
+import java.util.concurrent.CompletableFuture;
+
+@SuppressWarnings("unused")
+public final class ChunkHelpers {
+    /**
+     * Requests a chunk without blocking the calling thread. Unlike calling getChunk from a worker thread, this never
+     * parks the caller while the server thread loads or generates the chunk; requests made off-thread are batched
+     * and started on the server thread.
+     * <p>
+     * The future is completed on whichever thread finishes the chunk, usually the server thread, so avoid doing
+     * expensive work directly in its callbacks.
+     * @param level the level to load the chunk in
+     * @param chunkX the chunk X coordinate
+     * @param chunkZ the chunk Z coordinate
+     * @param requiredStatus the status the chunk must have reached
+     * @param load whether to load or generate the chunk if it is not already available. If false, the future
+     *             completes with null when the chunk is not available
+     * @return a future completed with the chunk, or completed exceptionally if it could not be loaded
+     */
+    public static CompletableFuture<ChunkAccess> getChunkAsync(ServerLevel level, int chunkX, int chunkZ, ChunkStatus requiredStatus, boolean load) {
+        ServerChunkCache cache = level.getChunkSource();
+        if(cache instanceof IServerChunkCache)
+            return ((IServerChunkCache)cache).mfix$getChunkAsync(chunkX, chunkZ, requiredStatus, load);
+        /* the chunk_deadlock fix is disabled, at least avoid blocking the caller */
+        return CompletableFuture.supplyAsync(() -> cache.getChunk(chunkX, chunkZ, requiredStatus, load), level.getServer());
+    }
+
+    /**
+     * Requests a chunk without blocking the calling thread, loading or generating it if necessary.
+     * @see #getChunkAsync(ServerLevel, int, int, ChunkStatus, boolean)
+     */
+    public static CompletableFuture<ChunkAccess> getChunkAsync(ServerLevel level, int chunkX, int chunkZ, ChunkStatus requiredStatus) {
+        return getChunkAsync(level, chunkX, chunkZ, requiredStatus, true);
+    }
+}
@@ -1,16 +1,182 @@
 package org.embeddedt.modernfix.blockstate;
 
+import net.minecraft.core.Registry;
 import net.minecraft.world.level.block.Block;
 import net.minecraft.world.level.block.state.BlockBehaviour;
 import net.minecraft.world.level.block.state.BlockState;
+import org.embeddedt.modernfix.ModernFix;
+import org.embeddedt.modernfix.core.ModernFixMixinPlugin;
 import org.embeddedt.modernfix.duck.IBlockState;
+import org.embeddedt.modernfix.resources.ReloadExecutor;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicInteger;
 
 public class BlockStateCacheHandler {
+    private static final boolean PARALLEL_REBUILD = ModernFixMixinPlugin.instance.isOptionEnabled("perf.parallel_blockstate_cache_rebuild.BlockStateCacheHandler");
+
+    /**
+     * Blocks are handed out to worker threads in batches of this size. All states of a block are always built
+     * on the same thread, since mods commonly look at sibling states (e.g. the default state) while building.
+     */
+    private static final int BLOCKS_PER_TASK = 64;
+
+    /**
+     * States whose caches are currently being built in parallel mode, and the thread building them.
+     */
+    private static final Map<BlockBehaviour.BlockStateBase, Claim> BUILDING_STATES = new ConcurrentHashMap<>();
+    /** Number of claims held by the current thread. */
+    private static final ThreadLocal<int[]> CLAIMS_HELD = ThreadLocal.withInitial(() -> new int[1]);
+
+    private static ForkJoinPool rebuildPool;
+
+    public static boolean isParallelRebuildEnabled() {
+        return PARALLEL_REBUILD;
+    }
+
+    /**
+     * Claim the right to build the given state's cache.
+     * @return null if the caller now owns the build and must call {@link #release}, otherwise the existing claim
+     */
+    public static Claim claim(BlockBehaviour.BlockStateBase state) {
+        Claim claim = new Claim(Thread.currentThread());
+        Claim existing = BUILDING_STATES.putIfAbsent(state, claim);
+        if(existing == null)
+            CLAIMS_HELD.get()[0]++;
+        return existing;
+    }
+
+    public static void release(BlockBehaviour.BlockStateBase state) {
+        Claim claim = BUILDING_STATES.remove(state);
+        CLAIMS_HELD.get()[0]--;
+        if(claim != null)
+            claim.done.countDown();
+    }
+
+    /**
+     * @return whether the current thread is in the middle of building any state's cache
+     */
+    public static boolean isBuildingOnThisThread() {
+        return CLAIMS_HELD.get()[0] > 0;
+    }
+
+    public static class Claim {
+        private final Thread owner;
+        private final CountDownLatch done = new CountDownLatch(1);
+
+        Claim(Thread owner) {
+            this.owner = owner;
+        }
+
+        public boolean isOwnedByCurrentThread() {
+            return owner == Thread.currentThread();
+        }
+
+        /**
+         * Wait until the owner has finished building, successfully or not.
+         */
+        public void await() {
+            boolean interrupted = false;
+            while(true) {
+                try {
+                    done.await();
+                    break;
+                } catch(InterruptedException e) {
+                    interrupted = true;
+                }
+            }
+            if(interrupted)
+                Thread.currentThread().interrupt();
+        }
+    }
+
     public static void rebuildParallel(boolean force) {
         synchronized (BlockBehaviour.BlockStateBase.class) {
             for (BlockState blockState : Block.BLOCK_STATE_REGISTRY) {
                 ((IBlockState)blockState).clearCache();
             }
         }
+        if(force && PARALLEL_REBUILD) {
+            rebuildEagerly();
+        }
+    }
+
+    private static void rebuildEagerly() {
+        long startTime = System.nanoTime();
+        List<Block> blocks = new ArrayList<>();
+        for(Block block : Registry.BLOCK) {
+            blocks.add(block);
+        }
+        AtomicInteger failedBlocks = new AtomicInteger(0);
+        getRebuildPool().invoke(new RebuildTask(blocks, 0, blocks.size(), failedBlocks));
+        if(failedBlocks.get() > 0) {
+            /*
+             * Some mod's cache construction threw while being run concurrently. Build whatever is left
+             * on this thread instead, which matches what the serial path would have done. This only covers
+             * failures that surface as exceptions; a mod that silently races on shared state is not detected,
+             * which is why this mode is opt-in.
+             */
+            ModernFix.LOGGER.warn("{} block(s) failed to build their caches in parallel, retrying serially", failedBlocks.get());
+            for(BlockState state : Block.BLOCK_STATE_REGISTRY) {
+                ((IBlockState)state).rebuildCache();
+            }
+        }
+        ModernFix.LOGGER.debug("Rebuilt blockstate caches for {} blocks in {} ms", blocks.size(), (System.nanoTime() - startTime) / 1000000);
+    }
+
+    /**
+     * Mod code runs during cache construction, so use a pool whose workers have the mod class loader as their
+     * context class loader, like the dedicated reload executor.
+     */
+    private static synchronized ForkJoinPool getRebuildPool() {
+        if(rebuildPool == null) {
+            Executor reloadExecutor = ModernFix.resourceReloadExecutor();
+            if(reloadExecutor instanceof ForkJoinPool && ModernFixMixinPlugin.instance.isOptionEnabled("perf.dedicated_reload_executor.ReloadExecutor"))
+                rebuildPool = (ForkJoinPool)reloadExecutor;
+            else
+                rebuildPool = (ForkJoinPool)ReloadExecutor.createCustomResourceReloadExecutor();
+        }
+        return rebuildPool;
+    }
+
+    private static class RebuildTask extends RecursiveAction {
+        private final List<Block> blocks;
+        private final int start, end;
+        private final AtomicInteger failedBlocks;
+
+        RebuildTask(List<Block> blocks, int start, int end, AtomicInteger failedBlocks) {
+            this.blocks = blocks;
+            this.start = start;
+            this.end = end;
+            this.failedBlocks = failedBlocks;
+        }
+
+        @Override
+        protected void compute() {
+            if((end - start) > BLOCKS_PER_TASK) {
+                int mid = (start + end) >>> 1;
+                invokeAll(new RebuildTask(blocks, start, mid, failedBlocks), new RebuildTask(blocks, mid, end, failedBlocks));
+                return;
+            }
+            for(int i = start; i < end; i++) {
+                Block block = blocks.get(i);
+                try {
+                    for(BlockState state : block.getStateDefinition().getPossibleStates()) {
+                        ((IBlockState)state).rebuildCache();
+                    }
+                } catch(RuntimeException e) {
+                    // leave the remaining states invalid, they will be retried serially
+                    ModernFix.LOGGER.debug("Exception building caches for " + Registry.BLOCK.getKey(block), e);
+                    failedBlocks.incrementAndGet();
+                }
+            }
+        }
     }
 }
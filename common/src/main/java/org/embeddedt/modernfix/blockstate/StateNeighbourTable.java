@@ -0,0 +1,85 @@
+package org.embeddedt.modernfix.blockstate;
+
+import it.unimi.dsi.fastutil.objects.Object2IntOpenHashMap;
+import net.minecraft.world.level.block.state.StateHolder;
+import net.minecraft.world.level.block.state.properties.Property;
+
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Replacement for the per-state neighbour tables built by vanilla. Every state of a definition is assigned a
+ * mixed-radix index computed from the ordinals of its property values, so finding a neighbour is just arithmetic
+ * into one array shared by all states of the owner.
+ */
+public class StateNeighbourTable<S> {
+    private final Property<?>[] properties;
+    private final Object2IntOpenHashMap<Comparable<?>>[] valueOrdinals;
+    private final int[] radixes;
+    private final int[] strides;
+    private final Object[] statesByIndex;
+
+    @SuppressWarnings("unchecked")
+    public StateNeighbourTable(Collection<Property<?>> properties, List<S> states) {
+        int numProperties = properties.size();
+        this.properties = properties.toArray(new Property<?>[0]);
+        this.valueOrdinals = new Object2IntOpenHashMap[numProperties];
+        this.radixes = new int[numProperties];
+        this.strides = new int[numProperties];
+        int stride = 1;
+        // the last property varies fastest, matching the order in which StateDefinition creates states
+        for(int i = numProperties - 1; i >= 0; i--) {
+            Object2IntOpenHashMap<Comparable<?>> ordinals = new Object2IntOpenHashMap<>();
+            ordinals.defaultReturnValue(-1);
+            for(Comparable<?> value : this.properties[i].getPossibleValues()) {
+                ordinals.put(value, ordinals.size());
+            }
+            this.valueOrdinals[i] = ordinals;
+            this.radixes[i] = ordinals.size();
+            this.strides[i] = stride;
+            stride *= ordinals.size();
+        }
+        this.statesByIndex = new Object[stride];
+        for(S state : states) {
+            this.statesByIndex[computeIndex((StateHolder<?, ?>)state)] = state;
+        }
+    }
+
+    private int computeIndex(StateHolder<?, ?> state) {
+        int index = 0;
+        for(int i = 0; i < properties.length; i++) {
+            index += valueOrdinals[i].getInt(state.getValue(properties[i])) * strides[i];
+        }
+        return index;
+    }
+
+    public int indexOf(S state) {
+        return computeIndex((StateHolder<?, ?>)state);
+    }
+
+    private int propertyIndex(Property<?> property) {
+        for(int i = 0; i < properties.length; i++) {
+            if(properties[i] == property || properties[i].equals(property))
+                return i;
+        }
+        return -1;
+    }
+
+    /**
+     * Equivalent to looking up the given property and value in the vanilla neighbour table of the state with
+     * the given index.
+     * @return the neighbouring state, or null if the property or value is not valid for this definition
+     */
+    @SuppressWarnings("unchecked")
+    public S getNeighbour(int stateIndex, Property<?> property, Comparable<?> value) {
+        int propIdx = propertyIndex(property);
+        if(propIdx == -1)
+            return null;
+        int newOrdinal = valueOrdinals[propIdx].getInt(value);
+        if(newOrdinal == -1)
+            return null;
+        int stride = strides[propIdx];
+        int oldOrdinal = (stateIndex / stride) % radixes[propIdx];
+        return (S)statesByIndex[stateIndex + (newOrdinal - oldOrdinal) * stride];
+    }
+}
@@ -8,9 +8,12 @@ import net.minecraft.server.level.ServerLevel;
 import net.minecraft.server.packs.resources.Resource;
 import net.minecraft.server.packs.resources.ResourceManager;
 import org.embeddedt.modernfix.ModernFix;
+import org.embeddedt.modernfix.metrics.TickMetrics;
 import org.embeddedt.modernfix.structure.CachingStructureManager;
+import org.embeddedt.modernfix.world.ChunkPipelineStats;
 
 import java.util.Collection;
+import java.util.List;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
@@ -51,6 +54,43 @@ public class ModernFixCommands {
 
                             return 1;
                         }))
+                        .then(literal("chunkstats")
+                        .requires(source -> source.hasPermission(3))
+                        .executes(context -> {
+                            if(!ChunkPipelineStats.ENABLED)
+                                context.getSource().sendSuccess(new TextComponent("Chunk pipeline timing is disabled, enable mixin.feature.chunk_pipeline_stats to collect it"), false);
+                            List<String> summary = ChunkPipelineStats.getSummary();
+                            if(summary.isEmpty())
+                                context.getSource().sendSuccess(new TextComponent("No chunk statistics recorded yet"), false);
+                            for(String line : summary) {
+                                context.getSource().sendSuccess(new TextComponent(line), false);
+                            }
+                            return 1;
+                        })
+                        .then(literal("reset")
+                        .executes(context -> {
+                            ChunkPipelineStats.reset();
+                            context.getSource().sendSuccess(new TextComponent("Chunk pipeline statistics reset"), false);
+                            return 1;
+                        })))
+                        .then(literal("metrics")
+                        .requires(source -> source.hasPermission(3))
+                        .executes(context -> {
+                            if(!TickMetrics.ENABLED) {
+                                context.getSource().sendFailure(new TextComponent("Tick metrics are disabled, enable mixin.feature.tick_metrics to collect them"));
+                                return 0;
+                            }
+                            for(String line : TickMetrics.getSummary()) {
+                                context.getSource().sendSuccess(new TextComponent(line), false);
+                            }
+                            return 1;
+                        })
+                        .then(literal("reset")
+                        .executes(context -> {
+                            TickMetrics.reset();
+                            context.getSource().sendSuccess(new TextComponent("Tick metrics reset"), false);
+                            return 1;
+                        })))
         );
     }
 }
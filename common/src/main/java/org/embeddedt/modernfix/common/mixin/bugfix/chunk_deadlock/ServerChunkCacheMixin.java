@@ -4,11 +4,14 @@ import com.mojang.datafixers.util.Either;
 import net.minecraft.server.level.ChunkHolder;
 import net.minecraft.server.level.ServerChunkCache;
 import net.minecraft.server.level.ServerLevel;
+import net.minecraft.server.level.TicketType;
 import net.minecraft.world.level.ChunkPos;
 import net.minecraft.world.level.chunk.ChunkAccess;
 import net.minecraft.world.level.chunk.ChunkStatus;
 import net.minecraft.world.level.chunk.EmptyLevelChunk;
 import org.embeddedt.modernfix.ModernFix;
+import org.embeddedt.modernfix.duck.IServerChunkCache;
+import org.embeddedt.modernfix.world.BlockingChunkAccessStats;
 import org.spongepowered.asm.mixin.Final;
 import org.spongepowered.asm.mixin.Mixin;
 import org.spongepowered.asm.mixin.Shadow;
@@ -16,9 +19,11 @@ import org.spongepowered.asm.mixin.injection.At;
 import org.spongepowered.asm.mixin.injection.Inject;
 import org.spongepowered.asm.mixin.injection.callback.CallbackInfoReturnable;
 import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
 
 @Mixin(value = ServerChunkCache.class, priority = 1100)
-public abstract class ServerChunkCacheMixin {
+public abstract class ServerChunkCacheMixin implements IServerChunkCache {
     @Shadow @Final private Thread mainThread;
     @Shadow @Final public ServerLevel level;
 
@@ -27,6 +32,69 @@ public abstract class ServerChunkCacheMixin {
     @Shadow @Final private ServerChunkCache.MainThreadExecutor mainThreadProcessor;
     private final boolean debugDeadServerAccess = Boolean.getBoolean("modernfix.debugBadChunkloading");
 
+    /* keeps asynchronously requested chunks loaded until their future completes, one ticket per request */
+    private static final TicketType<Long> ASYNC_REQUEST_TICKET = TicketType.create("modernfix_async_request", Long::compareTo);
+    private static final AtomicLong nextRequestId = new AtomicLong();
+
+    private final ConcurrentLinkedQueue<Runnable> pendingAsyncRequests = new ConcurrentLinkedQueue<>();
+    private final AtomicBoolean asyncDrainScheduled = new AtomicBoolean(false);
+
+    @Override
+    public CompletableFuture<ChunkAccess> mfix$getChunkAsync(int chunkX, int chunkZ, ChunkStatus requiredStatus, boolean load) {
+        CompletableFuture<ChunkAccess> result = new CompletableFuture<>();
+        if(Thread.currentThread() == this.mainThread) {
+            this.startAsyncRequest(chunkX, chunkZ, requiredStatus, load, result);
+        } else if(!this.level.getServer().isRunning()) {
+            result.completeExceptionally(new IllegalStateException("Chunk requested from a stopped server"));
+        } else {
+            this.pendingAsyncRequests.add(() -> this.startAsyncRequest(chunkX, chunkZ, requiredStatus, load, result));
+            /* only one drain task is queued at a time, so requests made before it runs are handled as one batch */
+            if(this.asyncDrainScheduled.compareAndSet(false, true))
+                this.mainThreadProcessor.execute(this::drainAsyncRequests);
+        }
+        return result;
+    }
+
+    private void drainAsyncRequests() {
+        this.asyncDrainScheduled.set(false);
+        Runnable request;
+        while((request = this.pendingAsyncRequests.poll()) != null) {
+            request.run();
+        }
+    }
+
+    private void startAsyncRequest(int chunkX, int chunkZ, ChunkStatus requiredStatus, boolean load, CompletableFuture<ChunkAccess> result) {
+        ChunkPos pos = new ChunkPos(chunkX, chunkZ);
+        long requestId = nextRequestId.getAndIncrement();
+        /*
+         * The ticket vanilla adds in getChunkFutureMainThread expires after one tick, which is fine when the caller
+         * blocks until the chunk is ready but would unload a chunk that takes longer than that. Hold our own ticket
+         * at the same level until the request is done.
+         */
+        if(load)
+            ((ServerChunkCache)(Object)this).addRegionTicket(ASYNC_REQUEST_TICKET, pos, -ChunkStatus.getDistance(requiredStatus), requestId);
+        CompletableFuture<Either<ChunkAccess, ChunkHolder.ChunkLoadingFailure>> future;
+        try {
+            future = this.getChunkFutureMainThread(chunkX, chunkZ, requiredStatus, load);
+        } catch(RuntimeException e) {
+            future = new CompletableFuture<>();
+            future.completeExceptionally(e);
+        }
+        future.whenComplete((either, throwable) -> {
+            if(load)
+                this.mainThreadProcessor.execute(() -> ((ServerChunkCache)(Object)this).removeRegionTicket(ASYNC_REQUEST_TICKET, pos, -ChunkStatus.getDistance(requiredStatus), requestId));
+            if(throwable != null) {
+                result.completeExceptionally(throwable);
+            } else if(either.left().isPresent()) {
+                result.complete(either.left().get());
+            } else if(!load) {
+                result.complete(null);
+            } else {
+                result.completeExceptionally(new IllegalStateException("Chunk not there when requested: " + either.right().get()));
+            }
+        });
+    }
+
     @Inject(method = "getChunk", at = @At("HEAD"), cancellable = true)
     private void bailIfServerDead(int chunkX, int chunkZ, ChunkStatus requiredStatus, boolean load, CallbackInfoReturnable<ChunkAccess> cir) {
         if(!this.level.getServer().isRunning() && !this.mainThread.isAlive()) {
@@ -36,6 +104,7 @@ public abstract class ServerChunkCacheMixin {
             }
             cir.setReturnValue(new EmptyLevelChunk(this.level, new ChunkPos(chunkX, chunkZ)));
         } else if(Thread.currentThread() != this.mainThread) {
+            String caller = BlockingChunkAccessStats.recordBlockingCall();
             CompletableFuture<Either<ChunkAccess, ChunkHolder.ChunkLoadingFailure>> future = CompletableFuture.supplyAsync(() -> this.getChunkFutureMainThread(chunkX, chunkZ, requiredStatus, false), this.mainThreadProcessor).join();
             if(!future.isDone()) {
                 // Wait at least 500 milliseconds before printing anything
@@ -51,7 +120,7 @@ public abstract class ServerChunkCacheMixin {
                 if(debugDeadServerAccess)
                     ModernFix.LOGGER.warn("Async loading of a chunk was requested, this might not be desirable", new Exception());
                 else
-                    ModernFix.LOGGER.warn("Suspicious async chunkload, pass -Dmodernfix.debugBadChunkloading=true for more details");
+                    ModernFix.LOGGER.warn("Suspicious async chunkload from {}, pass -Dmodernfix.debugBadChunkloading=true for more details", caller);
                 try {
                     resultingChunk = future.get(10, TimeUnit.SECONDS);
                     if(resultingChunk.left().isPresent()) {
@@ -1,6 +1,7 @@
 package org.embeddedt.modernfix.common.mixin.bugfix.paper_chunk_patches;
 
 import com.mojang.datafixers.util.Either;
+import com.mojang.datafixers.util.Pair;
 import net.minecraft.server.level.ChunkHolder;
 import net.minecraft.world.level.chunk.ChunkAccess;
 import net.minecraft.world.level.chunk.ChunkStatus;
@@ -8,41 +9,75 @@ import org.embeddedt.modernfix.duck.IPaperChunkHolder;
 import org.spongepowered.asm.mixin.Final;
 import org.spongepowered.asm.mixin.Mixin;
 import org.spongepowered.asm.mixin.Shadow;
+import org.spongepowered.asm.mixin.injection.At;
+import org.spongepowered.asm.mixin.injection.Redirect;
 
 import java.util.List;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicReferenceArray;
 
 @Mixin(ChunkHolder.class)
 public abstract class ChunkHolderMixin implements IPaperChunkHolder {
 
-    @Shadow public abstract CompletableFuture<Either<ChunkAccess, ChunkHolder.ChunkLoadingFailure>> getFutureIfPresentUnchecked(ChunkStatus arg);
-
     @Shadow @Final private static List<ChunkStatus> CHUNK_STATUSES;
 
-    public ChunkStatus mfix$getChunkHolderStatus() {
-        for (ChunkStatus curr = ChunkStatus.FULL, next = curr.getParent(); curr != next; curr = next, next = next.getParent()) {
-            CompletableFuture<Either<ChunkAccess, ChunkHolder.ChunkLoadingFailure>> future = this.getFutureIfPresentUnchecked(curr);
-            Either<ChunkAccess, ChunkHolder.ChunkLoadingFailure> either = future.getNow(null);
-            if (either == null || !either.left().isPresent()) {
-                continue;
-            }
-            return curr;
+    @Shadow @Final private AtomicReferenceArray<CompletableFuture<Either<ChunkAccess, ChunkHolder.ChunkLoadingFailure>>> futures;
+
+    /**
+     * The highest status whose future has completed successfully, along with its chunk. Status futures are only ever
+     * replaced if they failed, so this can only move forward (or swap the chunk for an imposter at the same status).
+     * <p>
+     * It is updated by a listener on each status future, but that listener is registered before the chunk pipeline's
+     * own dependents and so runs after them. Readers therefore first catch up on any futures that have completed
+     * without their listener having run yet, see {@link #mfix$refresh()}.
+     */
+    private volatile Pair<ChunkStatus, ChunkAccess> mfix$highestCompleted = null;
+
+    @SuppressWarnings({"rawtypes", "unchecked"})
+    @Redirect(method = { "getOrScheduleFuture", "replaceProtoChunk" }, at = @At(value = "INVOKE", target = "Ljava/util/concurrent/atomic/AtomicReferenceArray;set(ILjava/lang/Object;)V"))
+    private void trackCompletedStatus(AtomicReferenceArray futures, int index, Object value) {
+        futures.set(index, value);
+        ChunkStatus status = CHUNK_STATUSES.get(index);
+        /* the status chain walk this replaces never looked at EMPTY */
+        if(status == ChunkStatus.EMPTY)
+            return;
+        ((CompletableFuture<Either<ChunkAccess, ChunkHolder.ChunkLoadingFailure>>)value).thenAccept(either -> either.ifLeft(chunk -> this.mfix$markCompleted(status, chunk)));
+    }
+
+    private synchronized void mfix$markCompleted(ChunkStatus status, ChunkAccess chunk) {
+        Pair<ChunkStatus, ChunkAccess> current = this.mfix$highestCompleted;
+        if(current == null || status.getIndex() >= current.getFirst().getIndex())
+            this.mfix$highestCompleted = Pair.of(status, chunk);
+    }
+
+    /**
+     * Advance the cached status over any directly following status futures that have already completed.
+     */
+    private Pair<ChunkStatus, ChunkAccess> mfix$refresh() {
+        Pair<ChunkStatus, ChunkAccess> current = this.mfix$highestCompleted;
+        /* EMPTY is never tracked, start from the status after it */
+        int next = current != null ? current.getFirst().getIndex() + 1 : ChunkStatus.EMPTY.getIndex() + 1;
+        while(next < CHUNK_STATUSES.size()) {
+            CompletableFuture<Either<ChunkAccess, ChunkHolder.ChunkLoadingFailure>> future = this.futures.get(next);
+            if(future == null || !future.isDone() || future.isCompletedExceptionally())
+                break;
+            ChunkAccess chunk = future.join().left().orElse(null);
+            if(chunk == null)
+                break;
+            this.mfix$markCompleted(CHUNK_STATUSES.get(next), chunk);
+            next++;
         }
+        return this.mfix$highestCompleted;
+    }
 
-        return null;
+    public ChunkStatus mfix$getChunkHolderStatus() {
+        Pair<ChunkStatus, ChunkAccess> current = this.mfix$refresh();
+        return current != null ? current.getFirst() : null;
     }
 
     public ChunkAccess mfix$getAvailableChunkNow() {
-        // TODO can we just getStatusFuture(EMPTY)?
-        for (ChunkStatus curr = ChunkStatus.FULL, next = curr.getParent(); curr != next; curr = next, next = next.getParent()) {
-            CompletableFuture<Either<ChunkAccess, ChunkHolder.ChunkLoadingFailure>> future = this.getFutureIfPresentUnchecked(curr);
-            Either<ChunkAccess, ChunkHolder.ChunkLoadingFailure> either = future.getNow(null);
-            if (either == null || !either.left().isPresent()) {
-                continue;
-            }
-            return either.left().get();
-        }
-        return null;
+        Pair<ChunkStatus, ChunkAccess> current = this.mfix$refresh();
+        return current != null ? current.getSecond() : null;
     }
 
     private static ChunkStatus mfix$getNextStatus(ChunkStatus status) {
@@ -54,8 +89,9 @@ public abstract class ChunkHolderMixin implements IPaperChunkHolder {
 
     @Override
     public boolean mfix$canAdvanceStatus() {
-        ChunkStatus status = mfix$getChunkHolderStatus();
-        ChunkAccess chunk = mfix$getAvailableChunkNow();
-        return chunk != null && (status == null || chunk.getStatus().isOrAfter(mfix$getNextStatus(status)));
+        Pair<ChunkStatus, ChunkAccess> current = this.mfix$refresh();
+        if(current == null)
+            return false;
+        return current.getSecond().getStatus().isOrAfter(mfix$getNextStatus(current.getFirst()));
     }
 }
@@ -3,8 +3,10 @@ package org.embeddedt.modernfix.common.mixin.bugfix.paper_chunk_patches;
 import net.minecraft.server.level.ChunkHolder;
 import net.minecraft.server.level.ChunkMap;
 import net.minecraft.util.thread.BlockableEventLoop;
+import net.minecraft.world.level.chunk.ChunkStatus;
 import org.embeddedt.modernfix.duck.IPaperChunkHolder;
 import org.embeddedt.modernfix.platform.ModernFixPlatformHooks;
+import org.embeddedt.modernfix.world.ChunkPipelineStats;
 import org.spongepowered.asm.mixin.Final;
 import org.spongepowered.asm.mixin.Mixin;
 import org.spongepowered.asm.mixin.Shadow;
@@ -50,14 +52,19 @@ public class ChunkMapMixin {
 
     @SuppressWarnings({"rawtypes", "unchecked"})
     @Redirect(method = "scheduleChunkGeneration", at = @At(value = "INVOKE", target = "Ljava/util/concurrent/CompletableFuture;thenComposeAsync(Ljava/util/function/Function;Ljava/util/concurrent/Executor;)Ljava/util/concurrent/CompletableFuture;"))
-    private CompletableFuture skipWorkerIfPossible(CompletableFuture inputFuture, Function function, Executor executor, ChunkHolder holder) {
+    private CompletableFuture skipWorkerIfPossible(CompletableFuture inputFuture, Function function, Executor executor, ChunkHolder holder, ChunkStatus status) {
         Executor targetExecutor = (runnable) -> {
             if(((IPaperChunkHolder)holder).mfix$canAdvanceStatus()) {
-                this.mainInvokingExecutor.execute(runnable);
+                this.mainInvokingExecutor.execute(ChunkPipelineStats.wrapTask(status, runnable, true));
                 return;
             }
-            executor.execute(runnable);
+            executor.execute(ChunkPipelineStats.wrapTask(status, runnable, false));
         };
-        return inputFuture.thenComposeAsync(function, targetExecutor);
+        CompletableFuture future = inputFuture.thenComposeAsync(function, targetExecutor);
+        if(ChunkPipelineStats.ENABLED) {
+            long scheduledTime = System.nanoTime();
+            future.whenComplete((result, throwable) -> ChunkPipelineStats.recordCompletion(status, scheduledTime));
+        }
+        return future;
     }
 }
@@ -3,6 +3,7 @@ package org.embeddedt.modernfix.common.mixin.feature.measure_time;
 import com.google.common.base.Stopwatch;
 import net.minecraft.server.Bootstrap;
 import org.apache.logging.log4j.Logger;
+import org.embeddedt.modernfix.metrics.StartupTrace;
 import org.objectweb.asm.Opcodes;
 import org.spongepowered.asm.mixin.Final;
 import org.spongepowered.asm.mixin.Mixin;
@@ -25,6 +26,7 @@ public class BootstrapMixin {
     private static void printStartTime(CallbackInfo ci) {
         if(startWatch != null && startWatch.isRunning()) {
             startWatch.stop();
+            StartupTrace.record("Vanilla bootstrap", "startup", System.nanoTime() - startWatch.elapsed(TimeUnit.NANOSECONDS));
             LOGGER.info("Vanilla bootstrap took " + startWatch.elapsed(TimeUnit.MILLISECONDS) + " milliseconds");
         }
     }
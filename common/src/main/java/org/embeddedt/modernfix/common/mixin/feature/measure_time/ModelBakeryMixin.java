@@ -0,0 +1,27 @@
+package org.embeddedt.modernfix.common.mixin.feature.measure_time;
+
+import net.minecraft.client.renderer.texture.AtlasSet;
+import net.minecraft.client.resources.model.ModelBakery;
+import org.embeddedt.modernfix.annotation.ClientOnlyMixin;
+import org.embeddedt.modernfix.metrics.StartupTrace;
+import org.spongepowered.asm.mixin.Mixin;
+import org.spongepowered.asm.mixin.injection.At;
+import org.spongepowered.asm.mixin.injection.Inject;
+import org.spongepowered.asm.mixin.injection.callback.CallbackInfoReturnable;
+
+@Mixin(ModelBakery.class)
+@ClientOnlyMixin
+public class ModelBakeryMixin {
+    private long bakeStartTime;
+
+    @Inject(method = "uploadTextures", at = @At("HEAD"), require = 0)
+    private void recordBakeStart(CallbackInfoReturnable<AtlasSet> cir) {
+        bakeStartTime = System.nanoTime();
+    }
+
+    /* uploads the stitched atlases, then bakes every top-level model */
+    @Inject(method = "uploadTextures", at = @At("RETURN"), require = 0)
+    private void recordBakeEnd(CallbackInfoReturnable<AtlasSet> cir) {
+        StartupTrace.record("Model bake", "models", bakeStartTime);
+    }
+}
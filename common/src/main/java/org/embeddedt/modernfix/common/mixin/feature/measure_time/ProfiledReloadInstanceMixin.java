@@ -16,7 +16,8 @@ public class ProfiledReloadInstanceMixin {
     private static List<PreparableReloadListener> getWrappedListeners(List<PreparableReloadListener> listeners) {
         List<PreparableReloadListener> newList = new ArrayList<>(listeners.size());
         for(PreparableReloadListener listener : listeners) {
-            newList.add(new NamedPreparableResourceListener(listener));
+            /* may already be wrapped for tracing */
+            newList.add(listener instanceof NamedPreparableResourceListener ? listener : new NamedPreparableResourceListener(listener));
         }
         return newList;
     }
@@ -1,11 +1,18 @@
 package org.embeddedt.modernfix.common.mixin.feature.measure_time;
 
+import net.minecraft.server.packs.resources.PreparableReloadListener;
 import net.minecraft.server.packs.resources.SimpleReloadableResourceManager;
 import org.apache.logging.log4j.Logger;
+import org.embeddedt.modernfix.metrics.StartupTrace;
+import org.embeddedt.modernfix.util.NamedPreparableResourceListener;
 import org.spongepowered.asm.mixin.Mixin;
 import org.spongepowered.asm.mixin.injection.At;
+import org.spongepowered.asm.mixin.injection.ModifyVariable;
 import org.spongepowered.asm.mixin.injection.Redirect;
 
+import java.util.ArrayList;
+import java.util.List;
+
 @Mixin(SimpleReloadableResourceManager.class)
 public class SimpleReloadableResourceManagerMixin {
     // TODO maybe expose as a mixin config
@@ -18,4 +25,15 @@ public class SimpleReloadableResourceManagerMixin {
     private boolean enableDebugReloader(Logger logger) {
         return logger.isDebugEnabled() || ENABLE_DEBUG_RELOADER;
     }
+
+    @ModifyVariable(method = "createReload", at = @At("HEAD"), argsOnly = true)
+    private List<PreparableReloadListener> wrapListenersForTrace(List<PreparableReloadListener> listeners) {
+        if(!StartupTrace.ENABLED)
+            return listeners;
+        List<PreparableReloadListener> newList = new ArrayList<>(listeners.size());
+        for(PreparableReloadListener listener : listeners) {
+            newList.add(listener instanceof NamedPreparableResourceListener ? listener : new NamedPreparableResourceListener(listener));
+        }
+        return newList;
+    }
 }
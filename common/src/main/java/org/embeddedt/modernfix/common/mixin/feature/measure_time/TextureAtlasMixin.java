@@ -0,0 +1,30 @@
+package org.embeddedt.modernfix.common.mixin.feature.measure_time;
+
+import net.minecraft.client.renderer.texture.TextureAtlas;
+import net.minecraft.resources.ResourceLocation;
+import org.embeddedt.modernfix.annotation.ClientOnlyMixin;
+import org.embeddedt.modernfix.metrics.StartupTrace;
+import org.spongepowered.asm.mixin.Final;
+import org.spongepowered.asm.mixin.Mixin;
+import org.spongepowered.asm.mixin.Shadow;
+import org.spongepowered.asm.mixin.injection.At;
+import org.spongepowered.asm.mixin.injection.Inject;
+import org.spongepowered.asm.mixin.injection.callback.CallbackInfoReturnable;
+
+@Mixin(TextureAtlas.class)
+@ClientOnlyMixin
+public class TextureAtlasMixin {
+    @Shadow @Final private ResourceLocation location;
+
+    private long stitchStartTime;
+
+    @Inject(method = "prepareToStitch", at = @At("HEAD"))
+    private void recordStitchStart(CallbackInfoReturnable<TextureAtlas.Preparations> cir) {
+        stitchStartTime = System.nanoTime();
+    }
+
+    @Inject(method = "prepareToStitch", at = @At("RETURN"))
+    private void recordStitchEnd(CallbackInfoReturnable<TextureAtlas.Preparations> cir) {
+        StartupTrace.record("Stitch " + this.location, "textures", stitchStartTime);
+    }
+}
@@ -0,0 +1,27 @@
+package org.embeddedt.modernfix.common.mixin.feature.tick_metrics;
+
+import com.mojang.datafixers.util.Either;
+import net.minecraft.server.level.ChunkHolder;
+import net.minecraft.server.level.ChunkMap;
+import net.minecraft.server.level.ServerLevel;
+import net.minecraft.world.level.ChunkPos;
+import net.minecraft.world.level.chunk.ChunkAccess;
+import org.embeddedt.modernfix.metrics.TickMetrics;
+import org.spongepowered.asm.mixin.Final;
+import org.spongepowered.asm.mixin.Mixin;
+import org.spongepowered.asm.mixin.Shadow;
+import org.spongepowered.asm.mixin.injection.At;
+import org.spongepowered.asm.mixin.injection.Inject;
+import org.spongepowered.asm.mixin.injection.callback.CallbackInfoReturnable;
+
+import java.util.concurrent.CompletableFuture;
+
+@Mixin(ChunkMap.class)
+public class ChunkMapMixin {
+    @Shadow @Final private ServerLevel level;
+
+    @Inject(method = "scheduleChunkLoad", at = @At("HEAD"))
+    private void countChunkLoad(ChunkPos pos, CallbackInfoReturnable<CompletableFuture<Either<ChunkAccess, ChunkHolder.ChunkLoadingFailure>>> cir) {
+        TickMetrics.forLevel(this.level.dimension()).chunkLoads.increment();
+    }
+}
@@ -0,0 +1,27 @@
+package org.embeddedt.modernfix.common.mixin.feature.tick_metrics;
+
+import net.minecraft.server.MinecraftServer;
+import org.embeddedt.modernfix.metrics.PrometheusExporter;
+import org.embeddedt.modernfix.metrics.TickMetrics;
+import org.spongepowered.asm.mixin.Mixin;
+import org.spongepowered.asm.mixin.injection.At;
+import org.spongepowered.asm.mixin.injection.Inject;
+import org.spongepowered.asm.mixin.injection.callback.CallbackInfo;
+
+import java.util.function.BooleanSupplier;
+
+@Mixin(MinecraftServer.class)
+public class MinecraftServerMixin {
+    private long mfix$tickStart;
+
+    @Inject(method = "tickServer", at = @At("HEAD"))
+    private void recordTickStart(BooleanSupplier hasTimeLeft, CallbackInfo ci) {
+        this.mfix$tickStart = System.nanoTime();
+    }
+
+    @Inject(method = "tickServer", at = @At("RETURN"))
+    private void recordTickEnd(BooleanSupplier hasTimeLeft, CallbackInfo ci) {
+        TickMetrics.SERVER_TICK.record(System.nanoTime() - this.mfix$tickStart);
+        PrometheusExporter.onServerTick();
+    }
+}
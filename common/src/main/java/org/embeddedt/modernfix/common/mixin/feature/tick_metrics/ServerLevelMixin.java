@@ -0,0 +1,52 @@
+package org.embeddedt.modernfix.common.mixin.feature.tick_metrics;
+
+import net.minecraft.server.level.ServerLevel;
+import net.minecraft.world.level.Level;
+import org.embeddedt.modernfix.metrics.TickMetrics;
+import org.spongepowered.asm.mixin.Mixin;
+import org.spongepowered.asm.mixin.injection.At;
+import org.spongepowered.asm.mixin.injection.Inject;
+import org.spongepowered.asm.mixin.injection.callback.CallbackInfo;
+
+import java.util.function.BooleanSupplier;
+
+@Mixin(ServerLevel.class)
+public class ServerLevelMixin {
+    private TickMetrics.LevelMetrics mfix$metrics;
+    private long mfix$tickStart, mfix$entityStart, mfix$entityTotal, mfix$blockEntityStart;
+
+    @Inject(method = "tick", at = @At("HEAD"))
+    private void recordTickStart(BooleanSupplier hasTimeLeft, CallbackInfo ci) {
+        if(this.mfix$metrics == null)
+            this.mfix$metrics = TickMetrics.forLevel(((Level)(Object)this).dimension());
+        this.mfix$entityTotal = 0;
+        this.mfix$tickStart = System.nanoTime();
+    }
+
+    /* entities are timed one by one and summed, so that the time spent on other work in the loop is excluded */
+    @Inject(method = "tick", at = @At(value = "INVOKE", target = "guardEntityTick(Ljava/util/function/Consumer;Lnet/minecraft/world/entity/Entity;)V"), require = 0)
+    private void recordEntityStart(BooleanSupplier hasTimeLeft, CallbackInfo ci) {
+        this.mfix$entityStart = System.nanoTime();
+    }
+
+    @Inject(method = "tick", at = @At(value = "INVOKE", target = "guardEntityTick(Ljava/util/function/Consumer;Lnet/minecraft/world/entity/Entity;)V", shift = At.Shift.AFTER), require = 0)
+    private void recordEntityEnd(BooleanSupplier hasTimeLeft, CallbackInfo ci) {
+        this.mfix$entityTotal += System.nanoTime() - this.mfix$entityStart;
+    }
+
+    @Inject(method = "tick", at = @At(value = "INVOKE", target = "tickBlockEntities()V"), require = 0)
+    private void recordBlockEntityStart(BooleanSupplier hasTimeLeft, CallbackInfo ci) {
+        this.mfix$blockEntityStart = System.nanoTime();
+    }
+
+    @Inject(method = "tick", at = @At(value = "INVOKE", target = "tickBlockEntities()V", shift = At.Shift.AFTER), require = 0)
+    private void recordBlockEntityEnd(BooleanSupplier hasTimeLeft, CallbackInfo ci) {
+        this.mfix$metrics.blockEntities.record(System.nanoTime() - this.mfix$blockEntityStart);
+    }
+
+    @Inject(method = "tick", at = @At("RETURN"))
+    private void recordTickEnd(BooleanSupplier hasTimeLeft, CallbackInfo ci) {
+        this.mfix$metrics.tick.record(System.nanoTime() - this.mfix$tickStart);
+        this.mfix$metrics.entities.record(this.mfix$entityTotal);
+    }
+}
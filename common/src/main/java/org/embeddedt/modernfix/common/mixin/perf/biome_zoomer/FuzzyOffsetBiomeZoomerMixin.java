@@ -1,5 +1,6 @@
 package org.embeddedt.modernfix.common.mixin.perf.biome_zoomer;
 
+import it.unimi.dsi.fastutil.HashCommon;
 import net.minecraft.world.level.biome.Biome;
 import net.minecraft.world.level.biome.BiomeManager;
 import net.minecraft.world.level.biome.FuzzyOffsetBiomeZoomer;
@@ -7,18 +8,26 @@ import org.spongepowered.asm.mixin.Mixin;
 import org.spongepowered.asm.mixin.Overwrite;
 import org.spongepowered.asm.mixin.Shadow;
 
+import java.util.Arrays;
+
 @Mixin(FuzzyOffsetBiomeZoomer.class)
 public abstract class FuzzyOffsetBiomeZoomerMixin {
     @Shadow protected static double getFiddledDistance(long seed, int x, int y, int z, double scaleX, double scaleY, double scaleZ) {
         throw new AssertionError();
     }
 
+    private static final int CORNER_CACHE_SIZE = 4096;
+    private static final int SEED_SLOT = CORNER_CACHE_SIZE * 2;
+
     /**
-     * @author embeddedt
-     * @reason use the modern logic that doesn't allocate an array of 8 doubles every time
+     * Per-thread direct-mapped cache of which of the 8 surrounding noise cells each block position picked. The
+     * choice only depends on the seed and the position, not on the biome source, so it can be reused across chunks.
+     * Each entry takes two longs: the packed X/Z coordinates, and the Y coordinate with the corner in the low bits.
+     * The last slot holds the seed the entries were computed with.
      */
-    @Overwrite
-    public Biome getBiome(long seed, int xIn, int yIn, int zIn, BiomeManager.NoiseBiomeSource biomeReader) {
+    private static final ThreadLocal<long[]> CORNER_CACHE = ThreadLocal.withInitial(() -> new long[CORNER_CACHE_SIZE * 2 + 1]);
+
+    private static int selectCorner(long seed, int xIn, int yIn, int zIn) {
         int i = xIn - 2;
         int j = yIn - 2;
         int k = zIn - 2;
@@ -48,6 +57,38 @@ public abstract class FuzzyOffsetBiomeZoomerMixin {
             }
         }
 
+        return k1;
+    }
+
+    /**
+     * @author embeddedt
+     * @reason use the modern logic that doesn't allocate an array of 8 doubles every time, and remember the
+     * result for recently queried positions
+     */
+    @Overwrite
+    public Biome getBiome(long seed, int xIn, int yIn, int zIn, BiomeManager.NoiseBiomeSource biomeReader) {
+        long[] cache = CORNER_CACHE.get();
+        if (cache[SEED_SLOT] != seed) {
+            Arrays.fill(cache, 0, SEED_SLOT, 0);
+            cache[SEED_SLOT] = seed;
+        }
+        int slot = (HashCommon.mix(xIn * 73856093 ^ yIn * 19349663 ^ zIn * 83492791) & (CORNER_CACHE_SIZE - 1)) << 1;
+        long xzKey = ((long)xIn << 32) | (zIn & 0xFFFFFFFFL);
+        long yKey = (long)yIn << 32;
+        long entry = cache[slot + 1];
+        int k1;
+        // bit 3 marks the entry as filled
+        if ((entry & 8) != 0 && cache[slot] == xzKey && (entry & 0xFFFFFFFF00000000L) == yKey) {
+            k1 = (int)(entry & 7);
+        } else {
+            k1 = selectCorner(seed, xIn, yIn, zIn);
+            cache[slot] = xzKey;
+            cache[slot + 1] = yKey | 8 | k1;
+        }
+
+        int l = (xIn - 2) >> 2;
+        int i1 = (yIn - 2) >> 2;
+        int j1 = (zIn - 2) >> 2;
         int l2 = (k1 & 4) == 0 ? l : l + 1;
         int i3 = (k1 & 2) == 0 ? i1 : i1 + 1;
         int j3 = (k1 & 1) == 0 ? j1 : j1 + 1;
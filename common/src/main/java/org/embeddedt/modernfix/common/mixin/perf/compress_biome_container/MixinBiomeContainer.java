@@ -1,7 +1,5 @@
 package org.embeddedt.modernfix.common.mixin.perf.compress_biome_container;
 
-import it.unimi.dsi.fastutil.objects.Reference2ShortMap;
-import it.unimi.dsi.fastutil.objects.Reference2ShortOpenHashMap;
 import net.minecraft.util.BitStorage;
 import net.minecraft.core.IdMap;
 import net.minecraft.world.level.ChunkPos;
@@ -9,11 +7,14 @@ import net.minecraft.util.Mth;
 import net.minecraft.world.level.biome.Biome;
 import net.minecraft.world.level.chunk.ChunkBiomeContainer;
 import net.minecraft.world.level.biome.BiomeSource;
+import org.embeddedt.modernfix.world.BiomePalette;
 import org.spongepowered.asm.mixin.*;
 import org.spongepowered.asm.mixin.injection.At;
 import org.spongepowered.asm.mixin.injection.Inject;
 import org.spongepowered.asm.mixin.injection.callback.CallbackInfo;
 
+import java.util.Arrays;
+
 @Mixin(ChunkBiomeContainer.class)
 public class MixinBiomeContainer {
     @Mutable
@@ -29,7 +30,8 @@ public class MixinBiomeContainer {
     @Final
     private static int WIDTH_BITS;
 
-    private Biome[] palette;
+    private BiomePalette palette;
+    /* null if the palette has a single entry */
     private BitStorage intArray;
 
     @Inject(method = "<init>(Lnet/minecraft/core/IdMap;[I)V", at = @At("RETURN"), require = 0)
@@ -53,68 +55,59 @@ public class MixinBiomeContainer {
     }
 
     private void createCompact() {
-        if (this.intArray != null || this.biomes[0] == null) {
+        if (this.palette != null || this.biomes[0] == null) {
             return;
         }
 
-        Reference2ShortOpenHashMap<Biome> paletteTable = this.createPalette();
-        Biome[] paletteIndexed = new Biome[paletteTable.size()];
-
-        for (Reference2ShortMap.Entry<Biome> entry : paletteTable.reference2ShortEntrySet()) {
-            paletteIndexed[entry.getShortValue()] = entry.getKey();
-        }
-
-        int packedIntSize = Math.max(2, Mth.ceillog2(paletteTable.size()));
-        BitStorage integerArray = new BitStorage(packedIntSize, ChunkBiomeContainer.BIOMES_SIZE);
+        Biome[] entries = new Biome[4];
+        int size = 0;
+        short[] ids = new short[this.biomes.length];
 
         Biome prevBiome = null;
         short prevId = -1;
 
         for (int i = 0; i < this.biomes.length; i++) {
             Biome biome = this.biomes[i];
-            short id;
 
-            if (prevBiome == biome) {
-                id = prevId;
-            } else {
-                id = paletteTable.getShort(biome);
+            if (prevBiome != biome) {
+                prevId = -1;
 
-                if (id < 0) {
-                    throw new IllegalStateException("Palette is missing entry: " + biome);
+                // Chunks rarely contain more than a handful of biomes, a linear scan is cheaper than hashing
+                for (short j = 0; j < size; j++) {
+                    if (entries[j] == biome) {
+                        prevId = j;
+                        break;
+                    }
+                }
+
+                if (prevId < 0) {
+                    if (size == entries.length) {
+                        entries = Arrays.copyOf(entries, size * 2);
+                    }
+
+                    entries[size] = biome;
+                    prevId = (short) size++;
                 }
 
-                prevId = id;
                 prevBiome = biome;
             }
 
-            integerArray.set(i, id);
+            ids[i] = prevId;
         }
 
-        this.palette = paletteIndexed;
-        this.intArray = integerArray;
-        this.biomes = null;
-    }
+        this.palette = BiomePalette.of(Arrays.copyOf(entries, size));
 
-    private Reference2ShortOpenHashMap<Biome> createPalette() {
-        Reference2ShortOpenHashMap<Biome> map = new Reference2ShortOpenHashMap<>();
-        map.defaultReturnValue(Short.MIN_VALUE);
+        if (size > 1) {
+            BitStorage integerArray = new BitStorage(Math.max(2, Mth.ceillog2(size)), ChunkBiomeContainer.BIOMES_SIZE);
 
-        Biome prevObj = null;
-        short id = 0;
-
-        for (Biome obj : this.biomes) {
-            if (obj == prevObj) {
-                continue;
-            }
-
-            if (map.getShort(obj) < 0) {
-                map.put(obj, id++);
+            for (int i = 0; i < ids.length; i++) {
+                integerArray.set(i, ids[i]);
             }
 
-            prevObj = obj;
+            this.intArray = integerArray;
         }
 
-        return map;
+        this.biomes = null;
     }
 
     /**
@@ -123,11 +116,16 @@ public class MixinBiomeContainer {
      */
     @Overwrite
     public int[] writeBiomes() {
-        int size = this.intArray.getSize();
-        int[] array = new int[size];
-
-        for(int i = 0; i < size; ++i) {
-            array[i] = this.biomeRegistry.getId(this.palette[this.intArray.get(i)]);
+        int[] array = new int[ChunkBiomeContainer.BIOMES_SIZE];
+        // Look up each palette entry once instead of once per cell
+        int[] paletteIds = this.palette.getIds(this.biomeRegistry);
+
+        if (this.intArray == null) {
+            Arrays.fill(array, paletteIds[0]);
+        } else {
+            for (int i = 0; i < array.length; ++i) {
+                array[i] = paletteIds[this.intArray.get(i)];
+            }
         }
 
         return array;
@@ -139,10 +137,14 @@ public class MixinBiomeContainer {
      */
     @Overwrite
     public Biome getNoiseBiome(int biomeX, int biomeY, int biomeZ) {
+        if (this.intArray == null) {
+            return this.palette.get(0);
+        }
+
         int x = biomeX & ChunkBiomeContainer.HORIZONTAL_MASK;
         int y = Mth.clamp(biomeY, 0, ChunkBiomeContainer.VERTICAL_MASK);
         int z = biomeZ & ChunkBiomeContainer.HORIZONTAL_MASK;
 
-        return this.palette[this.intArray.get(y << WIDTH_BITS + WIDTH_BITS | z << WIDTH_BITS | x)];
+        return this.palette.get(this.intArray.get(y << WIDTH_BITS + WIDTH_BITS | z << WIDTH_BITS | x));
     }
 }
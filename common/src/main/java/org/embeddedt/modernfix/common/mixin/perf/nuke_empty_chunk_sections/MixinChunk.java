@@ -7,6 +7,7 @@ import net.minecraft.world.level.Level;
 import net.minecraft.world.level.chunk.ChunkBiomeContainer;
 import net.minecraft.world.level.chunk.LevelChunk;
 import net.minecraft.world.level.chunk.LevelChunkSection;
+import org.embeddedt.modernfix.world.ChunkPipelineStats;
 import org.spongepowered.asm.mixin.Final;
 import org.spongepowered.asm.mixin.Mixin;
 import org.spongepowered.asm.mixin.Shadow;
@@ -26,10 +27,14 @@ public class MixinChunk {
                         TickList list1, TickList list2, long inhabited,
                         LevelChunkSection[] oldSections, Consumer consumer, CallbackInfo ci) {
         /* taken from Hydrogen */
+        int dropped = 0;
         for(int i = 0; i < this.sections.length; i++) {
-            if(LevelChunkSection.isEmpty(this.sections[i])) {
-                this.sections[i] = null;
+            if(this.sections[i] != LevelChunk.EMPTY_SECTION && LevelChunkSection.isEmpty(this.sections[i])) {
+                this.sections[i] = LevelChunk.EMPTY_SECTION;
+                dropped++;
             }
         }
+        if(dropped > 0)
+            ChunkPipelineStats.recordDroppedSections(dropped, true);
     }
 }
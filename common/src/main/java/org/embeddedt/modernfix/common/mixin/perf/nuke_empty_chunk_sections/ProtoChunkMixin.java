@@ -0,0 +1,36 @@
+package org.embeddedt.modernfix.common.mixin.perf.nuke_empty_chunk_sections;
+
+import net.minecraft.world.level.chunk.ChunkStatus;
+import net.minecraft.world.level.chunk.LevelChunk;
+import net.minecraft.world.level.chunk.LevelChunkSection;
+import net.minecraft.world.level.chunk.ProtoChunk;
+import org.embeddedt.modernfix.world.ChunkPipelineStats;
+import org.spongepowered.asm.mixin.Final;
+import org.spongepowered.asm.mixin.Mixin;
+import org.spongepowered.asm.mixin.Shadow;
+import org.spongepowered.asm.mixin.injection.At;
+import org.spongepowered.asm.mixin.injection.Inject;
+import org.spongepowered.asm.mixin.injection.callback.CallbackInfo;
+
+@Mixin(ProtoChunk.class)
+public class ProtoChunkMixin {
+    @Shadow @Final private LevelChunkSection[] sections;
+
+    /**
+     * Noise generation creates every section up to the top of the terrain, so chunks being generated carry full
+     * sections of air through every later step. Release them once each step finishes; vanilla already treats a
+     * null section as empty and recreates it in getOrCreateSection when something non-air is placed there.
+     */
+    @Inject(method = "setStatus", at = @At("RETURN"))
+    private void dropEmptySections(ChunkStatus status, CallbackInfo ci) {
+        int dropped = 0;
+        for(int i = 0; i < this.sections.length; i++) {
+            if(this.sections[i] != LevelChunk.EMPTY_SECTION && LevelChunkSection.isEmpty(this.sections[i])) {
+                this.sections[i] = LevelChunk.EMPTY_SECTION;
+                dropped++;
+            }
+        }
+        if(dropped > 0)
+            ChunkPipelineStats.recordDroppedSections(dropped, false);
+    }
+}
@@ -0,0 +1,102 @@
+package org.embeddedt.modernfix.common.mixin.perf.parallel_datapack_parsing;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonParseException;
+import net.minecraft.resources.ResourceLocation;
+import net.minecraft.server.packs.resources.Resource;
+import net.minecraft.server.packs.resources.ResourceManager;
+import net.minecraft.server.packs.resources.SimpleJsonResourceReloadListener;
+import net.minecraft.util.GsonHelper;
+import net.minecraft.util.profiling.ProfilerFiller;
+import org.apache.logging.log4j.Logger;
+import org.embeddedt.modernfix.ModernFix;
+import org.spongepowered.asm.mixin.Final;
+import org.spongepowered.asm.mixin.Mixin;
+import org.spongepowered.asm.mixin.Shadow;
+import org.spongepowered.asm.mixin.injection.At;
+import org.spongepowered.asm.mixin.injection.Inject;
+import org.spongepowered.asm.mixin.injection.Redirect;
+import org.spongepowered.asm.mixin.injection.callback.CallbackInfoReturnable;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.Predicate;
+import java.util.stream.Collectors;
+
+@Mixin(SimpleJsonResourceReloadListener.class)
+public class SimpleJsonResourceReloadListenerMixin {
+    private static final int MIN_FILES_FOR_PARALLEL_PARSE = 64;
+
+    @Shadow @Final private static Logger LOGGER;
+    @Shadow @Final private Gson gson;
+    @Shadow @Final private String directory;
+
+    /* results of the parallel parse, handed from the listResources redirect to the return of prepare() */
+    private static final ThreadLocal<Map<ResourceLocation, JsonElement>> parallelResults = new ThreadLocal<>();
+
+    /**
+     * Parse all the files up front across the reload pool, and give the vanilla loop nothing to do. The results
+     * are merged into the map vanilla returns, so other injections into prepare() still see the usual flow.
+     */
+    @Redirect(method = "prepare(Lnet/minecraft/server/packs/resources/ResourceManager;Lnet/minecraft/util/profiling/ProfilerFiller;)Ljava/util/Map;", at = @At(value = "INVOKE", target = "Lnet/minecraft/server/packs/resources/ResourceManager;listResources(Ljava/lang/String;Ljava/util/function/Predicate;)Ljava/util/Collection;"))
+    private Collection<ResourceLocation> parseInParallel(ResourceManager manager, String path, Predicate<String> filter) {
+        Collection<ResourceLocation> files = manager.listResources(path, filter);
+        Executor executor = ModernFix.resourceReloadExecutor();
+        if(files.size() < MIN_FILES_FOR_PARALLEL_PARSE || !(executor instanceof ForkJoinPool))
+            return files;
+        List<ResourceLocation> fileList = new ArrayList<>(files);
+        /* running the parallel stream from inside the pool keeps its tasks on the pool */
+        List<JsonElement> parsed = ((ForkJoinPool)executor).submit(() -> fileList.parallelStream()
+                .map(location -> mfix$parse(manager, location))
+                .collect(Collectors.toList())).join();
+        Map<ResourceLocation, JsonElement> results = new HashMap<>();
+        int prefixLength = this.directory.length() + 1;
+        for(int i = 0; i < fileList.size(); i++) {
+            JsonElement element = parsed.get(i);
+            if(element == null)
+                continue;
+            ResourceLocation file = fileList.get(i);
+            ResourceLocation id = mfix$getId(file, prefixLength);
+            if(results.put(id, element) != null)
+                throw new IllegalStateException("Duplicate data file ignored with ID " + id);
+        }
+        parallelResults.set(results);
+        return Collections.emptyList();
+    }
+
+    @Inject(method = "prepare(Lnet/minecraft/server/packs/resources/ResourceManager;Lnet/minecraft/util/profiling/ProfilerFiller;)Ljava/util/Map;", at = @At("RETURN"))
+    private void addParallelResults(ResourceManager manager, ProfilerFiller profiler, CallbackInfoReturnable<Map<ResourceLocation, JsonElement>> cir) {
+        Map<ResourceLocation, JsonElement> results = parallelResults.get();
+        if(results != null) {
+            parallelResults.remove();
+            cir.getReturnValue().putAll(results);
+        }
+    }
+
+    private static ResourceLocation mfix$getId(ResourceLocation file, int prefixLength) {
+        String path = file.getPath();
+        return new ResourceLocation(file.getNamespace(), path.substring(prefixLength, path.length() - ".json".length()));
+    }
+
+    /**
+     * Same as the body of the vanilla loop, including its error handling.
+     */
+    private JsonElement mfix$parse(ResourceManager manager, ResourceLocation file) {
+        ResourceLocation id = mfix$getId(file, this.directory.length() + 1);
+        try(Resource resource = manager.getResource(file);
+            InputStream stream = resource.getInputStream();
+            Reader reader = new BufferedReader(new InputStreamReader(stream, StandardCharsets.UTF_8))) {
+            JsonElement element = GsonHelper.fromJson(this.gson, reader, JsonElement.class);
+            if(element == null)
+                LOGGER.error("Couldn't load data file {} from {} as it's null or empty", id, file);
+            return element;
+        } catch(IOException | IllegalArgumentException | JsonParseException e) {
+            LOGGER.error("Couldn't parse data file {} from {}", id, file, e);
+            return null;
+        }
+    }
+}
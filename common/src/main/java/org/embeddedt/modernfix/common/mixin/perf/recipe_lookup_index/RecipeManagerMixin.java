@@ -0,0 +1,37 @@
+package org.embeddedt.modernfix.common.mixin.perf.recipe_lookup_index;
+
+import net.minecraft.resources.ResourceLocation;
+import net.minecraft.world.Container;
+import net.minecraft.world.item.crafting.Recipe;
+import net.minecraft.world.item.crafting.RecipeManager;
+import net.minecraft.world.item.crafting.RecipeType;
+import net.minecraft.world.level.Level;
+import org.embeddedt.modernfix.recipe.RecipeLookupIndex;
+import org.spongepowered.asm.mixin.Mixin;
+import org.spongepowered.asm.mixin.Shadow;
+import org.spongepowered.asm.mixin.injection.At;
+import org.spongepowered.asm.mixin.injection.Inject;
+import org.spongepowered.asm.mixin.injection.callback.CallbackInfoReturnable;
+
+import java.util.Map;
+import java.util.Optional;
+
+@Mixin(RecipeManager.class)
+public abstract class RecipeManagerMixin {
+    @Shadow private Map<RecipeType<?>, Map<ResourceLocation, Recipe<?>>> recipes;
+
+    @Shadow protected abstract <C extends Container, T extends Recipe<C>> Map<ResourceLocation, Recipe<C>> byType(RecipeType<T> recipeType);
+
+    private volatile RecipeLookupIndex lookupIndex;
+
+    @Inject(method = "getRecipeFor", at = @At("HEAD"), cancellable = true)
+    private <C extends Container, T extends Recipe<C>> void useLookupIndex(RecipeType<T> type, C container, Level level, CallbackInfoReturnable<Optional<T>> cir) {
+        RecipeLookupIndex index = this.lookupIndex;
+        /* rebuilt lazily whenever the recipes or tags are replaced */
+        if(index == null || !index.isValidFor(this.recipes)) {
+            index = new RecipeLookupIndex(this.recipes);
+            this.lookupIndex = index;
+        }
+        cir.setReturnValue(index.getRecipeFor(type, container, level, this.byType(type)));
+    }
+}
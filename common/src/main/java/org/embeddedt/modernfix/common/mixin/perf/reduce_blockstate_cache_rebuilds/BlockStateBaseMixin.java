@@ -1,6 +1,7 @@
 package org.embeddedt.modernfix.common.mixin.perf.reduce_blockstate_cache_rebuilds;
 
 import net.minecraft.world.level.block.state.BlockBehaviour;
+import org.embeddedt.modernfix.blockstate.BlockStateCacheHandler;
 import org.embeddedt.modernfix.duck.IBlockState;
 import org.objectweb.asm.Opcodes;
 import org.spongepowered.asm.mixin.Dynamic;
@@ -25,8 +26,40 @@ public abstract class BlockStateBaseMixin implements IBlockState {
         cacheInvalid = true;
     }
 
+    @Override
+    public void rebuildCache() {
+        generateCache((BlockBehaviour.BlockStateBase)(Object)this);
+    }
+
     private BlockBehaviour.BlockStateBase.Cache generateCache(BlockBehaviour.BlockStateBase base) {
         if(cacheInvalid) {
+            if(BlockStateCacheHandler.isParallelRebuildEnabled()) {
+                /*
+                 * No lock is held while building, as the cache of one state can ask for the cache of another.
+                 * A thread that is itself building a cache uses the old cache of any state it cannot build right
+                 * away, like the serial path does when it recurses; that way no thread waits while holding a claim,
+                 * and no cycle of waiting threads can form. Other threads wait for the fresh cache.
+                 */
+                while(cacheInvalid) {
+                    BlockStateCacheHandler.Claim claim = BlockStateCacheHandler.claim(base);
+                    if(claim == null) {
+                        try {
+                            if(cacheInvalid) {
+                                this.initCache();
+                                cacheInvalid = false;
+                            }
+                        } finally {
+                            BlockStateCacheHandler.release(base);
+                        }
+                    } else if(claim.isOwnedByCurrentThread() || BlockStateCacheHandler.isBuildingOnThisThread()) {
+                        break;
+                    } else {
+                        /* if the owner failed, the cache is still invalid and this thread tries to build it */
+                        claim.await();
+                    }
+                }
+                return this.cache;
+            }
             // Ensure that only one block's cache is built at a time
             synchronized (BlockBehaviour.BlockStateBase.class) {
                 if(cacheInvalid) {
@@ -0,0 +1,27 @@
+package org.embeddedt.modernfix.common.mixin.perf.reload_scheduler;
+
+import net.minecraft.server.packs.resources.PreparableReloadListener;
+import net.minecraft.server.packs.resources.SimpleReloadableResourceManager;
+import org.embeddedt.modernfix.util.NamedPreparableResourceListener;
+import org.spongepowered.asm.mixin.Mixin;
+import org.spongepowered.asm.mixin.injection.At;
+import org.spongepowered.asm.mixin.injection.ModifyVariable;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Mixin(SimpleReloadableResourceManager.class)
+public class SimpleReloadableResourceManagerMixin {
+    /**
+     * Wrap the listeners so that their background work goes through the ReloadScheduler. The list order, and so the
+     * order of the apply stages, is left alone.
+     */
+    @ModifyVariable(method = "createReload", at = @At("HEAD"), argsOnly = true)
+    private List<PreparableReloadListener> wrapListenersForScheduling(List<PreparableReloadListener> listeners) {
+        List<PreparableReloadListener> newList = new ArrayList<>(listeners.size());
+        for(PreparableReloadListener listener : listeners) {
+            newList.add(listener instanceof NamedPreparableResourceListener ? listener : new NamedPreparableResourceListener(listener));
+        }
+        return newList;
+    }
+}
@@ -0,0 +1,13 @@
+package org.embeddedt.modernfix.common.mixin.perf.snapshot_recipes;
+
+import net.minecraft.server.packs.AbstractPackResources;
+import org.spongepowered.asm.mixin.Mixin;
+import org.spongepowered.asm.mixin.gen.Accessor;
+
+import java.io.File;
+
+@Mixin(AbstractPackResources.class)
+public interface AbstractPackResourcesAccessor {
+    @Accessor
+    File getFile();
+}
@@ -0,0 +1,72 @@
+package org.embeddedt.modernfix.common.mixin.perf.snapshot_recipes;
+
+import com.google.gson.JsonElement;
+import net.minecraft.Util;
+import net.minecraft.resources.ResourceLocation;
+import net.minecraft.server.packs.resources.ResourceManager;
+import net.minecraft.util.profiling.ProfilerFiller;
+import net.minecraft.world.item.crafting.Recipe;
+import net.minecraft.world.item.crafting.RecipeManager;
+import org.embeddedt.modernfix.ModernFix;
+import org.embeddedt.modernfix.duck.IRecipeSnapshotManager;
+import org.embeddedt.modernfix.resources.RecipeSnapshot;
+import org.spongepowered.asm.mixin.Mixin;
+import org.spongepowered.asm.mixin.Shadow;
+import org.spongepowered.asm.mixin.injection.At;
+import org.spongepowered.asm.mixin.injection.Inject;
+import org.spongepowered.asm.mixin.injection.callback.CallbackInfo;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+@Mixin(RecipeManager.class)
+public abstract class RecipeManagerMixin implements IRecipeSnapshotManager {
+    @Shadow public abstract void replaceRecipes(Iterable<Recipe<?>> recipes);
+
+    @Shadow public abstract Collection<Recipe<?>> getRecipes();
+
+    /* key of the content the recipes are being parsed from, set if there was no matching snapshot */
+    private String pendingSnapshotKey;
+    private List<Recipe<?>> restoredRecipes;
+
+    @Override
+    public boolean mfix$loadSnapshot(ResourceManager manager) {
+        this.pendingSnapshotKey = null;
+        this.restoredRecipes = null;
+        String key = RecipeSnapshot.computeKey(manager);
+        if(key == null)
+            return false;
+        List<Recipe<?>> recipes = RecipeSnapshot.load(key);
+        if(recipes == null) {
+            this.pendingSnapshotKey = key;
+            return false;
+        }
+        this.restoredRecipes = recipes;
+        return true;
+    }
+
+    @Inject(method = "apply(Ljava/util/Map;Lnet/minecraft/server/packs/resources/ResourceManager;Lnet/minecraft/util/profiling/ProfilerFiller;)V", at = @At("HEAD"), cancellable = true)
+    private void applySnapshot(Map<ResourceLocation, JsonElement> map, ResourceManager manager, ProfilerFiller profiler, CallbackInfo ci) {
+        List<Recipe<?>> recipes = this.restoredRecipes;
+        if(recipes != null) {
+            this.restoredRecipes = null;
+            this.replaceRecipes(recipes);
+            ModernFix.LOGGER.info("Restored {} recipes from snapshot", recipes.size());
+            ci.cancel();
+        }
+    }
+
+    @Override
+    public void mfix$saveSnapshot() {
+        String key = this.pendingSnapshotKey;
+        if(key == null)
+            return;
+        this.pendingSnapshotKey = null;
+        /* tags are bound by now, so ingredients can be resolved safely */
+        List<Recipe<?>> recipes = new ArrayList<>(this.getRecipes());
+        CompletableFuture.runAsync(() -> RecipeSnapshot.save(key, recipes), Util.backgroundExecutor());
+    }
+}
@@ -0,0 +1,20 @@
+package org.embeddedt.modernfix.common.mixin.perf.snapshot_recipes;
+
+import net.minecraft.server.ServerResources;
+import net.minecraft.world.item.crafting.RecipeManager;
+import org.embeddedt.modernfix.duck.IRecipeSnapshotManager;
+import org.spongepowered.asm.mixin.Mixin;
+import org.spongepowered.asm.mixin.Shadow;
+import org.spongepowered.asm.mixin.injection.At;
+import org.spongepowered.asm.mixin.injection.Inject;
+import org.spongepowered.asm.mixin.injection.callback.CallbackInfo;
+
+@Mixin(ServerResources.class)
+public abstract class ServerResourcesMixin {
+    @Shadow public abstract RecipeManager getRecipeManager();
+
+    @Inject(method = "updateGlobals", at = @At("RETURN"))
+    private void saveRecipeSnapshot(CallbackInfo ci) {
+        ((IRecipeSnapshotManager)this.getRecipeManager()).mfix$saveSnapshot();
+    }
+}
@@ -0,0 +1,24 @@
+package org.embeddedt.modernfix.common.mixin.perf.snapshot_recipes;
+
+import com.google.gson.JsonElement;
+import net.minecraft.resources.ResourceLocation;
+import net.minecraft.server.packs.resources.ResourceManager;
+import net.minecraft.server.packs.resources.SimpleJsonResourceReloadListener;
+import net.minecraft.util.profiling.ProfilerFiller;
+import org.embeddedt.modernfix.duck.IRecipeSnapshotManager;
+import org.spongepowered.asm.mixin.Mixin;
+import org.spongepowered.asm.mixin.injection.At;
+import org.spongepowered.asm.mixin.injection.Inject;
+import org.spongepowered.asm.mixin.injection.callback.CallbackInfoReturnable;
+
+import java.util.HashMap;
+import java.util.Map;
+
+@Mixin(SimpleJsonResourceReloadListener.class)
+public class SimpleJsonResourceReloadListenerMixin {
+    @Inject(method = "prepare(Lnet/minecraft/server/packs/resources/ResourceManager;Lnet/minecraft/util/profiling/ProfilerFiller;)Ljava/util/Map;", at = @At("HEAD"), cancellable = true)
+    private void skipParseIfSnapshotted(ResourceManager manager, ProfilerFiller profiler, CallbackInfoReturnable<Map<ResourceLocation, JsonElement>> cir) {
+        if(this instanceof IRecipeSnapshotManager && ((IRecipeSnapshotManager)this).mfix$loadSnapshot(manager))
+            cir.setReturnValue(new HashMap<>());
+    }
+}
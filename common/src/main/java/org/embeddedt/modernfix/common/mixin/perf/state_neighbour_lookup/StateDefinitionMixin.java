@@ -0,0 +1,43 @@
+package org.embeddedt.modernfix.common.mixin.perf.state_neighbour_lookup;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableSortedMap;
+import net.minecraft.world.level.block.state.StateDefinition;
+import net.minecraft.world.level.block.state.StateHolder;
+import net.minecraft.world.level.block.state.properties.Property;
+import org.embeddedt.modernfix.blockstate.StateNeighbourTable;
+import org.embeddedt.modernfix.duck.IIndexedStateHolder;
+import org.spongepowered.asm.mixin.Final;
+import org.spongepowered.asm.mixin.Mixin;
+import org.spongepowered.asm.mixin.Shadow;
+import org.spongepowered.asm.mixin.injection.At;
+import org.spongepowered.asm.mixin.injection.Inject;
+import org.spongepowered.asm.mixin.injection.Redirect;
+import org.spongepowered.asm.mixin.injection.callback.CallbackInfo;
+
+import java.util.Map;
+
+@Mixin(StateDefinition.class)
+public class StateDefinitionMixin<O, S extends StateHolder<O, S>> {
+    @Shadow @Final private ImmutableSortedMap<String, Property<?>> propertiesByName;
+
+    @Shadow @Final private ImmutableList<S> states;
+
+    /**
+     * Vanilla builds a full table of neighbours for every state here, we replace it with one shared lookup
+     * table once all states exist.
+     */
+    @Redirect(method = "<init>", at = @At(value = "INVOKE", target = "Lnet/minecraft/world/level/block/state/StateHolder;populateNeighbours(Ljava/util/Map;)V"))
+    private void skipNeighbourTables(StateHolder<O, S> holder, Map<Map<Property<?>, Comparable<?>>, S> map) {
+
+    }
+
+    @Inject(method = "<init>", at = @At("RETURN"))
+    @SuppressWarnings("unchecked")
+    private void buildNeighbourTable(CallbackInfo ci) {
+        StateNeighbourTable<S> table = new StateNeighbourTable<>(this.propertiesByName.values(), this.states);
+        for(S state : this.states) {
+            ((IIndexedStateHolder<S>)state).mfix$setNeighbourTable(table, table.indexOf(state));
+        }
+    }
+}
@@ -0,0 +1,29 @@
+package org.embeddedt.modernfix.common.mixin.perf.state_neighbour_lookup;
+
+import com.google.common.collect.Table;
+import net.minecraft.world.level.block.state.StateHolder;
+import net.minecraft.world.level.block.state.properties.Property;
+import org.embeddedt.modernfix.blockstate.StateNeighbourTable;
+import org.embeddedt.modernfix.duck.IIndexedStateHolder;
+import org.spongepowered.asm.mixin.Mixin;
+import org.spongepowered.asm.mixin.injection.At;
+import org.spongepowered.asm.mixin.injection.Redirect;
+
+@Mixin(StateHolder.class)
+public class StateHolderMixin<O, S> implements IIndexedStateHolder<S> {
+    private StateNeighbourTable<S> mfix$neighbourTable;
+    private int mfix$stateIndex;
+
+    @Override
+    public void mfix$setNeighbourTable(StateNeighbourTable<S> table, int index) {
+        this.mfix$neighbourTable = table;
+        this.mfix$stateIndex = index;
+    }
+
+    @Redirect(method = "setValue", at = @At(value = "INVOKE", target = "Lcom/google/common/collect/Table;get(Ljava/lang/Object;Ljava/lang/Object;)Ljava/lang/Object;", remap = false))
+    private Object getNeighbourFromTable(Table<Property<?>, Comparable<?>, S> neighbours, Object property, Object value) {
+        if(this.mfix$neighbourTable == null)
+            return neighbours != null ? neighbours.get(property, value) : null;
+        return this.mfix$neighbourTable.getNeighbour(this.mfix$stateIndex, (Property<?>)property, (Comparable<?>)value);
+    }
+}
@@ -65,9 +65,80 @@ public class ModernFixEarlyConfig {
         return mixinsMissingMods;
     }
 
+    /**
+     * The annotations ModernFix cares about on a single mixin class.
+     */
+    private static class MixinMetadata {
+        final boolean clientOnly;
+        final String requiredModId;
+
+        MixinMetadata(boolean clientOnly, String requiredModId) {
+            this.clientOnly = clientOnly;
+            this.requiredModId = requiredModId;
+        }
+    }
+
+    /**
+     * Reads the mixin index generated at build time alongside each mixin config, which records the
+     * annotations of every mixin so that the classes themselves do not need to be parsed.
+     * @return the index, or an empty map if the index is missing or unreadable
+     */
+    private static Map<String, MixinMetadata> readMixinIndex(String configFile) {
+        String indexFile = configFile.replace(".mixins.json", ".mixin-index.json");
+        InputStream stream = ModernFixEarlyConfig.class.getClassLoader().getResourceAsStream(indexFile);
+        if(stream == null)
+            return Collections.emptyMap();
+        Map<String, MixinMetadata> index = new HashMap<>();
+        try(Reader reader = new BufferedReader(new InputStreamReader(stream, StandardCharsets.UTF_8))) {
+            JsonObject indexObject = (JsonObject)new JsonParser().parse(reader);
+            for(Map.Entry<String, JsonElement> entry : indexObject.entrySet()) {
+                JsonObject mixinObject = entry.getValue().getAsJsonObject();
+                boolean clientOnly = mixinObject.has("clientOnly") && mixinObject.get("clientOnly").getAsBoolean();
+                String requiredModId = mixinObject.has("requiresMod") ? mixinObject.get("requiresMod").getAsString() : null;
+                index.put(entry.getKey(), new MixinMetadata(clientOnly, requiredModId));
+            }
+        } catch(IOException | RuntimeException e) {
+            LOGGER.error("Error loading mixin index " + indexFile + ", falling back to scanning classes", e);
+            return Collections.emptyMap();
+        }
+        return index;
+    }
+
+    /**
+     * Fallback used for mixins that are not listed in the index, which reads the annotations from the class file.
+     * @return the metadata, or null if the class is not a mixin
+     */
+    private static MixinMetadata scanMixinClass(String mixinPath) throws IOException {
+        try(InputStream stream = ModernFixEarlyConfig.class.getClassLoader().getResourceAsStream(mixinPath)) {
+            ClassReader reader = new ClassReader(stream);
+            ClassNode node = new ClassNode();
+            reader.accept(node,  ClassReader.SKIP_CODE | ClassReader.SKIP_FRAMES | ClassReader.SKIP_DEBUG);
+            if(node.invisibleAnnotations == null)
+                return null;
+            boolean isMixin = false, isClientOnly = false;
+            String requiredModId = null;
+            for(AnnotationNode annotation : node.invisibleAnnotations) {
+                if(Objects.equals(annotation.desc, MIXIN_DESC)) {
+                    isMixin = true;
+                } else if(Objects.equals(annotation.desc, MIXIN_CLIENT_ONLY_DESC)) {
+                    isClientOnly = true;
+                } else if(Objects.equals(annotation.desc, MIXIN_REQUIRES_MOD_DESC)) {
+                    for(int i = 0; i < annotation.values.size(); i += 2) {
+                        if(annotation.values.get(i).equals("value")) {
+                            requiredModId = (String)annotation.values.get(i + 1);
+                            break;
+                        }
+                    }
+                }
+            }
+            return isMixin ? new MixinMetadata(isClientOnly, requiredModId) : null;
+        }
+    }
+
     private void scanForAndBuildMixinOptions() {
         List<String> configFiles = ImmutableList.of("modernfix-common.mixins.json", "modernfix-fabric.mixins.json", "modernfix-forge.mixins.json");
-        List<String> mixinPaths = new ArrayList<>();
+        Map<String, MixinMetadata> mixinMetadata = new LinkedHashMap<>();
+        int scannedClasses = 0;
         for(String configFile : configFiles) {
             InputStream stream = ModernFixEarlyConfig.class.getClassLoader().getResourceAsStream(configFile);
             if(stream == null)
@@ -77,70 +148,50 @@ public class ModernFixEarlyConfig {
                     isFabric = true;
                 JsonObject configObject = (JsonObject)new JsonParser().parse(reader);
                 JsonArray mixinList = configObject.getAsJsonArray("mixins");
-                String packageName = configObject.get("package").getAsString().replace('.', '/');
+                String packageName = configObject.get("package").getAsString();
+                Map<String, MixinMetadata> index = readMixinIndex(configFile);
                 for(JsonElement mixin : mixinList) {
-                    mixinPaths.add(packageName + "/" + mixin.getAsString().replace('.', '/') + ".class");
+                    String mixinName = mixin.getAsString();
+                    MixinMetadata metadata = index.get(mixinName);
+                    if(metadata == null) {
+                        String mixinPath = packageName.replace('.', '/') + "/" + mixinName.replace('.', '/') + ".class";
+                        try {
+                            metadata = scanMixinClass(mixinPath);
+                            scannedClasses++;
+                        } catch(IOException e) {
+                            ModernFix.LOGGER.error("Error scanning file " + mixinPath, e);
+                        }
+                    }
+                    if(metadata != null)
+                        mixinMetadata.put(packageName + "." + mixinName, metadata);
                 }
             } catch(IOException | JsonParseException e) {
                 LOGGER.error("Error loading config " + configFile, e);
             }
         }
+        if(scannedClasses > 0)
+            LOGGER.debug("Scanned {} mixin classes not present in the mixin index", scannedClasses);
         Splitter dotSplitter = Splitter.on('.');
-        for(String mixinPath : mixinPaths) {
-            try(InputStream stream = ModernFixEarlyConfig.class.getClassLoader().getResourceAsStream(mixinPath)) {
-                ClassReader reader = new ClassReader(stream);
-                ClassNode node = new ClassNode();
-                reader.accept(node,  ClassReader.SKIP_CODE | ClassReader.SKIP_FRAMES | ClassReader.SKIP_DEBUG);
-                if(node.invisibleAnnotations == null)
-                    return;
-                boolean isMixin = false, isClientOnly = false, requiredModPresent = true;
-                String requiredModId = "";
-                for(AnnotationNode annotation : node.invisibleAnnotations) {
-                    if(Objects.equals(annotation.desc, MIXIN_DESC)) {
-                        isMixin = true;
-                    } else if(Objects.equals(annotation.desc, MIXIN_CLIENT_ONLY_DESC)) {
-                        isClientOnly = true;
-                    } else if(Objects.equals(annotation.desc, MIXIN_REQUIRES_MOD_DESC)) {
-                        for(int i = 0; i < annotation.values.size(); i += 2) {
-                            if(annotation.values.get(i).equals("value")) {
-                                String modId = (String)annotation.values.get(i + 1);
-                                if(modId != null) {
-                                    requiredModPresent = modPresent(modId);
-                                    requiredModId = modId;
-                                }
-                                break;
-                            }
-                        }
-                    }
-                }
-                if(isMixin) {
-                    String mixinClassName = sanitize(node.name.replace('/', '.')).replace("org.embeddedt.modernfix.mixin.", "");
-                    if(!requiredModPresent)
-                        mixinsMissingMods.put(mixinClassName, requiredModId);
-                    else if(isClientOnly && !ModernFixPlatformHooks.isClient())
-                        mixinsMissingMods.put(mixinClassName, "[not client]");
-                    List<String> mixinOptionNames = dotSplitter.splitToList(mixinClassName);
-                    StringBuilder optionBuilder = new StringBuilder(mixinClassName.length());
-                    optionBuilder.append("mixin");
-                    for(int i = 0; i < mixinOptionNames.size() - 1; i++) {
-                        optionBuilder.append('.');
-                        optionBuilder.append(mixinOptionNames.get(i));
-                        mixinOptions.add(optionBuilder.toString());
-                    }
-                }
-            } catch(IOException e) {
-                ModernFix.LOGGER.error("Error scanning file " + mixinPath, e);
+        for(Map.Entry<String, MixinMetadata> entry : mixinMetadata.entrySet()) {
+            MixinMetadata metadata = entry.getValue();
+            String mixinClassName = sanitize(entry.getKey()).replace("org.embeddedt.modernfix.mixin.", "");
+            if(metadata.requiredModId != null && !modPresent(metadata.requiredModId))
+                mixinsMissingMods.put(mixinClassName, metadata.requiredModId);
+            else if(metadata.clientOnly && !ModernFixPlatformHooks.isClient())
+                mixinsMissingMods.put(mixinClassName, "[not client]");
+            List<String> mixinOptionNames = dotSplitter.splitToList(mixinClassName);
+            StringBuilder optionBuilder = new StringBuilder(mixinClassName.length());
+            optionBuilder.append("mixin");
+            for(int i = 0; i < mixinOptionNames.size() - 1; i++) {
+                optionBuilder.append('.');
+                optionBuilder.append(mixinOptionNames.get(i));
+                mixinOptions.add(optionBuilder.toString());
             }
         }
     }
 
-    private static final boolean shouldReplaceSearchTrees;
     private static final boolean isDevEnv = ModernFixPlatformHooks.isDevEnv();
 
-    static {
-        shouldReplaceSearchTrees = modPresent("jei");
-    }
-
     private static final ImmutableMap<String, Boolean> DEFAULT_SETTING_OVERRIDES = ImmutableMap.<String, Boolean>builder()
             .put("mixin.perf.dynamic_resources", false)
             .put("mixin.feature.direct_stack_trace", false)
@@ -153,7 +204,14 @@ public class ModernFixEarlyConfig {
             .put("mixin.perf.faster_item_rendering", false)
             .put("mixin.feature.spam_thread_dump", false)
             .put("mixin.feature.snapshot_easter_egg", true)
-            .put("mixin.perf.blast_search_trees", shouldReplaceSearchTrees)
+            .put("mixin.perf.parallel_blockstate_cache_rebuild", false)
+            .put("mixin.perf.async_jei.parallel_registration", false)
+            .put("mixin.perf.snapshot_recipes", false)
+            .put("mixin.feature.chunk_pipeline_stats", false)
+            .put("mixin.feature.slow_tick_profiler", false)
+            .put("mixin.feature.tick_metrics", false)
+            .put("mixin.feature.measure_time.trace", false)
+            .put("mixin.perf.reload_scheduler", false)
             .put("mixin.devenv", isDevEnv)
             .put("mixin.perf.remove_spawn_chunks", isDevEnv)
             .build();
@@ -193,9 +251,13 @@ public class ModernFixEarlyConfig {
         disableIfModPresent("mixin.bugfix.remove_block_chunkloading", "performant");
         disableIfModPresent("mixin.bugfix.paper_chunk_patches", "c2me");
         disableIfModPresent("mixin.perf.nbt_memory_usage", "c2me");
+        // FerriteCore already replaces the neighbour tables with its own indexed lookup
+        disableIfModPresent("mixin.perf.state_neighbour_lookup", "ferritecore");
         // DimThread makes changes to the server chunk manager (understandably), C2ME probably does the same
         disableIfModPresent("mixin.bugfix.chunk_deadlock", "c2me", "dimthread");
         disableIfModPresent("mixin.perf.reuse_datapacks", "tac");
+        /* script-driven recipe changes are not captured by the snapshot key */
+        disableIfModPresent("mixin.perf.snapshot_recipes", "kubejs", "crafttweaker");
         disableIfModPresent("mixin.launch.class_search_cache", "optifine");
         disableIfModPresent("mixin.perf.faster_texture_stitching", "optifine");
         disableIfModPresent("mixin.perf.datapack_reload_exceptions", "cyanide");
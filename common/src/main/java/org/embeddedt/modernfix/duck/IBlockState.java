@@ -3,4 +3,9 @@ package org.embeddedt.modernfix.duck;
 
 public interface IBlockState {
     void clearCache();
+
+    /**
+     * Builds the cache for this state immediately if it has been invalidated.
+     */
+    void rebuildCache();
 }
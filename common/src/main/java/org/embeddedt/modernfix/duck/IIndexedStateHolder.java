@@ -0,0 +1,7 @@
+package org.embeddedt.modernfix.duck;
+
+import org.embeddedt.modernfix.blockstate.StateNeighbourTable;
+
+public interface IIndexedStateHolder<S> {
+    void mfix$setNeighbourTable(StateNeighbourTable<S> table, int index);
+}
@@ -0,0 +1,16 @@
+package org.embeddedt.modernfix.duck;
+
+import net.minecraft.server.packs.resources.ResourceManager;
+
+public interface IRecipeSnapshotManager {
+    /**
+     * Try to restore the recipes from a snapshot matching the given resources.
+     * @return true if the snapshot was loaded, and the JSON files do not need to be read
+     */
+    boolean mfix$loadSnapshot(ResourceManager manager);
+
+    /**
+     * Write a snapshot of the current recipes in the background, if they were parsed from JSON.
+     */
+    void mfix$saveSnapshot();
+}
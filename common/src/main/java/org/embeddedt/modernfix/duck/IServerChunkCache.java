@@ -0,0 +1,10 @@
+package org.embeddedt.modernfix.duck;
+
+import net.minecraft.world.level.chunk.ChunkAccess;
+import net.minecraft.world.level.chunk.ChunkStatus;
+
+import java.util.concurrent.CompletableFuture;
+
+public interface IServerChunkCache {
+    CompletableFuture<ChunkAccess> mfix$getChunkAsync(int chunkX, int chunkZ, ChunkStatus requiredStatus, boolean load);
+}
@@ -2,7 +2,33 @@ package org.embeddedt.modernfix.jei.async;
 
 public interface IAsyncJeiStarter {
     static void checkForLoadInterruption() {
-        if(((JEIReloadThread)Thread.currentThread()).isStopRequested())
+        JEIReloadThread thread = JEIReloadThread.current();
+        /* JEI code can also end up running on the main thread, that can't be interrupted */
+        if(thread != null && thread.isStopRequested())
+            throw new JEILoadingInterruptedException();
+    }
+
+    static void startPhase(String phase, int total) {
+        JEIReloadThread thread = JEIReloadThread.current();
+        if(thread != null) {
+            thread.startPhase(phase, total);
+            if(thread.isStopRequested())
+                throw new JEILoadingInterruptedException();
+        }
+    }
+
+    static void setCurrentPlugin(String plugin) {
+        JEIReloadThread thread = JEIReloadThread.current();
+        if(thread != null)
+            thread.setCurrentPlugin(plugin);
+    }
+
+    /**
+     * Record that one step of the current phase completed, checking for interruption every few steps.
+     */
+    static void reportProgress() {
+        JEIReloadThread thread = JEIReloadThread.current();
+        if(thread != null && (thread.incrementProgress() % 100) == 0 && thread.isStopRequested())
             throw new JEILoadingInterruptedException();
     }
 }
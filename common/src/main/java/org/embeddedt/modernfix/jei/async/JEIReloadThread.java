@@ -1,13 +1,40 @@
 package org.embeddedt.modernfix.jei.async;
 
+import org.embeddedt.modernfix.metrics.StartupTrace;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
 public class JEIReloadThread extends Thread {
     private volatile boolean stopRequested;
 
+    private volatile String phase = null;
+    private volatile String currentPlugin = null;
+    private volatile int phaseTotal = -1;
+    private final AtomicInteger phaseProgress = new AtomicInteger();
+
     public JEIReloadThread(Runnable runnable, String s) {
         super(runnable, s);
         this.stopRequested = false;
     }
 
+    @Override
+    public void run() {
+        long start = System.nanoTime();
+        try {
+            super.run();
+        } finally {
+            StartupTrace.record(stopRequested ? "JEI start (cancelled)" : "JEI start", "jei", start);
+        }
+    }
+
+    /**
+     * @return the JEI reload thread that is running the current code, or null if it is running on another thread
+     */
+    public static JEIReloadThread current() {
+        Thread t = Thread.currentThread();
+        return t instanceof JEIReloadThread ? (JEIReloadThread)t : null;
+    }
+
     public void requestStop() {
         stopRequested = true;
     }
@@ -15,4 +42,46 @@ public class JEIReloadThread extends Thread {
     public boolean isStopRequested() {
         return stopRequested;
     }
+
+    /**
+     * Start a new phase of loading.
+     * @param total the number of steps in this phase, or -1 if unknown
+     */
+    public void startPhase(String phase, int total) {
+        this.currentPlugin = null;
+        this.phaseProgress.set(0);
+        this.phaseTotal = total;
+        this.phase = phase;
+    }
+
+    public void setCurrentPlugin(String plugin) {
+        this.currentPlugin = plugin;
+    }
+
+    /**
+     * @return the new number of completed steps in this phase
+     */
+    public int incrementProgress() {
+        return this.phaseProgress.incrementAndGet();
+    }
+
+    /**
+     * @return a short human-readable description of what the thread is doing, or null if nothing was reported yet
+     */
+    public String getStatus() {
+        String phase = this.phase;
+        if(phase == null)
+            return null;
+        StringBuilder sb = new StringBuilder(phase);
+        String plugin = this.currentPlugin;
+        if(plugin != null)
+            sb.append(" - ").append(plugin);
+        int progress = this.phaseProgress.get();
+        int total = this.phaseTotal;
+        if(total > 0)
+            sb.append(" (").append(Math.min(progress, total)).append('/').append(total).append(')');
+        else if(progress > 0)
+            sb.append(" (").append(progress).append(')');
+        return sb.toString();
+    }
 }
@@ -0,0 +1,114 @@
+package org.embeddedt.modernfix.metrics;
+
+import net.minecraft.Util;
+import org.embeddedt.modernfix.ModernFix;
+import org.embeddedt.modernfix.platform.ModernFixPlatformHooks;
+import org.embeddedt.modernfix.util.LatencyHistogram;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Periodically writes the tick metrics to modernfix/metrics.prom in the Prometheus text exposition format, for
+ * pickup by node_exporter's textfile collector or any other scraper. Enabled by setting
+ * -Dmodernfix.metricsExportSeconds to the export interval.
+ */
+public class PrometheusExporter {
+    private static final long EXPORT_INTERVAL = TimeUnit.SECONDS.toNanos(Long.getLong("modernfix.metricsExportSeconds", 0));
+    private static final double[] QUANTILES = new double[] { 0.5, 0.95, 0.99 };
+
+    private static long nextExport = System.nanoTime();
+    private static boolean writing = false;
+
+    /**
+     * Called at the end of each server tick.
+     */
+    public static void onServerTick() {
+        if(EXPORT_INTERVAL <= 0)
+            return;
+        long now = System.nanoTime();
+        if(now - nextExport < 0)
+            return;
+        nextExport = now + EXPORT_INTERVAL;
+        synchronized(PrometheusExporter.class) {
+            /* skip this round if the disk is slow enough that the previous write has not finished */
+            if(writing)
+                return;
+            writing = true;
+        }
+        String text = render();
+        Util.ioPool().execute(() -> {
+            try {
+                write(text);
+            } finally {
+                synchronized(PrometheusExporter.class) {
+                    writing = false;
+                }
+            }
+        });
+    }
+
+    private static void write(String text) {
+        Path file = ModernFixPlatformHooks.getGameDirectory().resolve("modernfix").resolve("metrics.prom");
+        try {
+            Files.createDirectories(file.getParent());
+            /* write and rename so scrapers never see a partial file */
+            Path tmp = file.resolveSibling("metrics.prom.tmp");
+            Files.write(tmp, text.getBytes(StandardCharsets.UTF_8));
+            Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING);
+        } catch(IOException e) {
+            ModernFix.LOGGER.error("Couldn't write metrics", e);
+        }
+    }
+
+    private static String render() {
+        StringBuilder sb = new StringBuilder();
+        header(sb, "modernfix_server_tick_seconds", "Duration of whole server ticks");
+        summary(sb, "modernfix_server_tick_seconds", "", TickMetrics.SERVER_TICK);
+        header(sb, "modernfix_level_tick_seconds", "Duration of level ticks");
+        for(Map.Entry<String, TickMetrics.LevelMetrics> entry : TickMetrics.getLevels().entrySet())
+            summary(sb, "modernfix_level_tick_seconds", label(entry.getKey()), entry.getValue().tick);
+        header(sb, "modernfix_entity_tick_seconds", "Time spent ticking entities per level tick");
+        for(Map.Entry<String, TickMetrics.LevelMetrics> entry : TickMetrics.getLevels().entrySet())
+            summary(sb, "modernfix_entity_tick_seconds", label(entry.getKey()), entry.getValue().entities);
+        header(sb, "modernfix_block_entity_tick_seconds", "Time spent ticking block entities per level tick");
+        for(Map.Entry<String, TickMetrics.LevelMetrics> entry : TickMetrics.getLevels().entrySet())
+            summary(sb, "modernfix_block_entity_tick_seconds", label(entry.getKey()), entry.getValue().blockEntities);
+        sb.append("# HELP modernfix_chunk_loads_total Chunks scheduled for loading\n");
+        sb.append("# TYPE modernfix_chunk_loads_total counter\n");
+        for(Map.Entry<String, TickMetrics.LevelMetrics> entry : TickMetrics.getLevels().entrySet())
+            sb.append("modernfix_chunk_loads_total{").append(label(entry.getKey())).append("} ").append(entry.getValue().chunkLoads.sum()).append('\n');
+        return sb.toString();
+    }
+
+    private static String label(String dimension) {
+        return "dimension=\"" + dimension.replace("\\", "\\\\").replace("\"", "\\\"") + "\"";
+    }
+
+    private static void header(StringBuilder sb, String name, String help) {
+        sb.append("# HELP ").append(name).append(' ').append(help).append('\n');
+        sb.append("# TYPE ").append(name).append(" summary\n");
+    }
+
+    private static void summary(StringBuilder sb, String name, String labels, RollingHistogram histogram) {
+        LatencyHistogram window = histogram.getWindow();
+        String prefix = labels.isEmpty() ? "" : labels + ",";
+        for(double quantile : QUANTILES) {
+            sb.append(name).append('{').append(prefix).append("quantile=\"").append(quantile).append("\"} ")
+                    .append(seconds(window.getPercentileNanos(quantile * 100))).append('\n');
+        }
+        String suffixLabels = labels.isEmpty() ? "" : "{" + labels + "}";
+        sb.append(name).append("_sum").append(suffixLabels).append(' ').append(seconds(histogram.getTotalNanos())).append('\n');
+        sb.append(name).append("_count").append(suffixLabels).append(' ').append(histogram.getTotalCount()).append('\n');
+    }
+
+    private static String seconds(long nanos) {
+        return String.format(Locale.ROOT, "%.6f", nanos / 1e9);
+    }
+}
@@ -0,0 +1,80 @@
+package org.embeddedt.modernfix.metrics;
+
+import org.embeddedt.modernfix.util.LatencyHistogram;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Histogram over a sliding window, made of a ring of fixed-length slots. Percentiles reflect the last few minutes,
+ * while the total count and sum are cumulative, matching the semantics of a Prometheus summary.
+ */
+public class RollingHistogram {
+    private static final int SLOTS = 5;
+    private static final long SLOT_LENGTH = TimeUnit.MINUTES.toNanos(1);
+
+    private final LatencyHistogram[] slots = new LatencyHistogram[SLOTS];
+    private int currentSlot = 0;
+    private long currentSlotEnd;
+    private final LongAdder totalCount = new LongAdder();
+    private final LongAdder totalNanos = new LongAdder();
+
+    public RollingHistogram() {
+        for(int i = 0; i < SLOTS; i++) {
+            slots[i] = new LatencyHistogram();
+        }
+        currentSlotEnd = System.nanoTime() + SLOT_LENGTH;
+    }
+
+    private synchronized LatencyHistogram advance() {
+        long now = System.nanoTime();
+        if(now - currentSlotEnd >= SLOT_LENGTH * SLOTS) {
+            /* idle for longer than the whole window */
+            for(LatencyHistogram slot : slots)
+                slot.reset();
+            currentSlotEnd = now + SLOT_LENGTH;
+        } else {
+            while(now - currentSlotEnd >= 0) {
+                currentSlot = (currentSlot + 1) % SLOTS;
+                slots[currentSlot].reset();
+                currentSlotEnd += SLOT_LENGTH;
+            }
+        }
+        return slots[currentSlot];
+    }
+
+    public void record(long nanos) {
+        advance().record(nanos);
+        totalCount.increment();
+        totalNanos.add(Math.max(nanos, 0));
+    }
+
+    /**
+     * @return a histogram of the values recorded within the window
+     */
+    public LatencyHistogram getWindow() {
+        advance();
+        LatencyHistogram merged = new LatencyHistogram();
+        synchronized(this) {
+            for(LatencyHistogram slot : slots)
+                merged.add(slot);
+        }
+        return merged;
+    }
+
+    public long getTotalCount() {
+        return totalCount.sum();
+    }
+
+    public long getTotalNanos() {
+        return totalNanos.sum();
+    }
+
+    public synchronized void reset() {
+        for(LatencyHistogram slot : slots)
+            slot.reset();
+        currentSlotEnd = System.nanoTime() + SLOT_LENGTH;
+        totalCount.reset();
+        totalNanos.reset();
+    }
+}
@@ -0,0 +1,142 @@
+package org.embeddedt.modernfix.metrics;
+
+import com.google.gson.stream.JsonWriter;
+import org.embeddedt.modernfix.ModernFix;
+import org.embeddedt.modernfix.core.ModernFixMixinPlugin;
+import org.embeddedt.modernfix.platform.ModernFixPlatformHooks;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.lang.management.ManagementFactory;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Records the phases measured by the measure_time feature as spans, and writes them out in the Chrome trace event
+ * format (modernfix/startup-trace.json), which can be opened in chrome://tracing, Perfetto or speedscope.
+ * Timestamps are relative to JVM start.
+ */
+public class StartupTrace {
+    public static final boolean ENABLED = ModernFixMixinPlugin.instance.isOptionEnabled("feature.measure_time.trace.StartupTrace");
+
+    /* executors in mod loading and model baking can run a lot of small tasks, don't let the trace grow unbounded */
+    private static final int MAX_EVENTS = 200000;
+
+    private static final long BASE_NANOS = System.nanoTime();
+    private static final long BASE_UPTIME_MICROS = ManagementFactory.getRuntimeMXBean().getUptime() * 1000;
+
+    private static final ConcurrentLinkedQueue<Span> SPANS = new ConcurrentLinkedQueue<>();
+    private static final AtomicInteger spanCount = new AtomicInteger();
+
+    private static class Span {
+        final String name, category, threadName;
+        final long threadId, startMicros, durationMicros;
+
+        Span(String name, String category, Thread thread, long startNanos, long endNanos) {
+            this.name = name;
+            this.category = category;
+            this.threadName = thread.getName();
+            this.threadId = thread.getId();
+            this.startMicros = toMicros(startNanos);
+            this.durationMicros = Math.max(0, (endNanos - startNanos) / 1000);
+        }
+    }
+
+    private static long toMicros(long nanos) {
+        return BASE_UPTIME_MICROS + (nanos - BASE_NANOS) / 1000;
+    }
+
+    /**
+     * Record a span on the current thread that started at the given {@link System#nanoTime()} and ends now.
+     */
+    public static void record(String name, String category, long startNanos) {
+        record(name, category, Thread.currentThread(), startNanos, System.nanoTime());
+    }
+
+    public static void record(String name, String category, Thread thread, long startNanos, long endNanos) {
+        if(!ENABLED || spanCount.incrementAndGet() > MAX_EVENTS)
+            return;
+        SPANS.add(new Span(name, category, thread, startNanos, endNanos));
+    }
+
+    /**
+     * Record a span covering everything since the JVM started.
+     */
+    public static void recordSinceStart(String name, String category) {
+        long now = System.nanoTime();
+        long uptimeNanos = ManagementFactory.getRuntimeMXBean().getUptime() * 1000000;
+        record(name, category, Thread.currentThread(), now - uptimeNanos, now);
+    }
+
+    /**
+     * @return an executor that records every task it runs as a span with the given name
+     */
+    public static Executor wrapExecutor(String name, String category, Executor executor) {
+        if(!ENABLED)
+            return executor;
+        return task -> executor.execute(() -> {
+            long start = System.nanoTime();
+            try {
+                task.run();
+            } finally {
+                record(name, category, start);
+            }
+        });
+    }
+
+    /**
+     * Write everything recorded so far to modernfix/startup-trace.json.
+     */
+    public static void write() {
+        if(!ENABLED)
+            return;
+        List<Span> spans = new ArrayList<>(SPANS);
+        Path file = ModernFixPlatformHooks.getGameDirectory().resolve("modernfix").resolve("startup-trace.json");
+        try {
+            Files.createDirectories(file.getParent());
+            Path tmp = file.resolveSibling("startup-trace.json.tmp");
+            try(Writer writer = Files.newBufferedWriter(tmp, StandardCharsets.UTF_8); JsonWriter json = new JsonWriter(writer)) {
+                json.beginObject();
+                json.name("displayTimeUnit").value("ms");
+                json.name("traceEvents").beginArray();
+                Map<Long, String> threadNames = new LinkedHashMap<>();
+                for(Span span : spans) {
+                    threadNames.putIfAbsent(span.threadId, span.threadName);
+                    json.beginObject();
+                    json.name("name").value(span.name);
+                    json.name("cat").value(span.category);
+                    json.name("ph").value("X");
+                    json.name("ts").value(span.startMicros);
+                    json.name("dur").value(span.durationMicros);
+                    json.name("pid").value(1);
+                    json.name("tid").value(span.threadId);
+                    json.endObject();
+                }
+                for(Map.Entry<Long, String> thread : threadNames.entrySet()) {
+                    json.beginObject();
+                    json.name("name").value("thread_name");
+                    json.name("ph").value("M");
+                    json.name("pid").value(1);
+                    json.name("tid").value(thread.getKey());
+                    json.name("args").beginObject().name("name").value(thread.getValue()).endObject();
+                    json.endObject();
+                }
+                json.endArray();
+                json.endObject();
+            }
+            Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING);
+            ModernFix.LOGGER.info("Wrote startup trace with {} spans to {}", spans.size(), file);
+        } catch(IOException e) {
+            ModernFix.LOGGER.error("Couldn't write startup trace", e);
+        }
+    }
+}
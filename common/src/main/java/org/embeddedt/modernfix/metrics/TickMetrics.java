@@ -0,0 +1,77 @@
+package org.embeddedt.modernfix.metrics;
+
+import net.minecraft.resources.ResourceKey;
+import net.minecraft.world.level.Level;
+import org.embeddedt.modernfix.core.ModernFixMixinPlugin;
+import org.embeddedt.modernfix.util.LatencyHistogram;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Registry of server tick timings. The values are recorded by the tick_metrics mixins, and can be read through
+ * /modernfix metrics or the Prometheus text file written by {@link PrometheusExporter}.
+ */
+public class TickMetrics {
+    public static final boolean ENABLED = ModernFixMixinPlugin.instance.isOptionEnabled("feature.tick_metrics.TickMetrics");
+
+    public static final RollingHistogram SERVER_TICK = new RollingHistogram();
+
+    /* sorted by dimension name so output is stable */
+    private static final Map<String, LevelMetrics> LEVELS = new ConcurrentSkipListMap<>();
+
+    private static volatile long startTime = System.nanoTime();
+
+    public static class LevelMetrics {
+        public final RollingHistogram tick = new RollingHistogram();
+        public final RollingHistogram entities = new RollingHistogram();
+        public final RollingHistogram blockEntities = new RollingHistogram();
+        public final LongAdder chunkLoads = new LongAdder();
+
+        void reset() {
+            tick.reset();
+            entities.reset();
+            blockEntities.reset();
+            chunkLoads.reset();
+        }
+    }
+
+    public static LevelMetrics forLevel(ResourceKey<Level> dimension) {
+        return LEVELS.computeIfAbsent(dimension.location().toString(), k -> new LevelMetrics());
+    }
+
+    public static Map<String, LevelMetrics> getLevels() {
+        return LEVELS;
+    }
+
+    public static double getSecondsSinceReset() {
+        return Math.max((System.nanoTime() - startTime) / 1e9, 0.001);
+    }
+
+    public static List<String> getSummary() {
+        List<String> lines = new ArrayList<>();
+        lines.add("Server tick: " + SERVER_TICK.getWindow().summarize());
+        double seconds = getSecondsSinceReset();
+        for(Map.Entry<String, LevelMetrics> entry : LEVELS.entrySet()) {
+            LevelMetrics metrics = entry.getValue();
+            LatencyHistogram tick = metrics.tick.getWindow();
+            lines.add(entry.getKey() + ":");
+            lines.add("  tick " + tick.summarize());
+            lines.add("  entities " + metrics.entities.getWindow().summarize());
+            lines.add("  block entities " + metrics.blockEntities.getWindow().summarize());
+            long loads = metrics.chunkLoads.sum();
+            lines.add(String.format("  chunk loads: %d (%.1f/s)", loads, loads / seconds));
+        }
+        return lines;
+    }
+
+    public static void reset() {
+        SERVER_TICK.reset();
+        for(LevelMetrics metrics : LEVELS.values())
+            metrics.reset();
+        startTime = System.nanoTime();
+    }
+}
@@ -77,6 +77,14 @@ public class ModernFixPlatformHooks {
         throw new AssertionError();
     }
 
+    /**
+     * @return a string that changes whenever the set of loaded mods, or the content of any mod file, changes
+     */
+    @ExpectPlatform
+    public static String getModListFingerprint() {
+        throw new AssertionError();
+    }
+
     @ExpectPlatform
     public static void sendPacket(ServerPlayer player, Object packet) {
         throw new AssertionError();
@@ -0,0 +1,192 @@
+package org.embeddedt.modernfix.recipe;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.collect.ImmutableSet;
+import it.unimi.dsi.fastutil.ints.IntArrayList;
+import it.unimi.dsi.fastutil.objects.Reference2IntOpenHashMap;
+import it.unimi.dsi.fastutil.objects.Reference2ObjectOpenHashMap;
+import net.minecraft.resources.ResourceLocation;
+import net.minecraft.tags.SerializationTags;
+import net.minecraft.tags.TagContainer;
+import net.minecraft.world.Container;
+import net.minecraft.world.item.Item;
+import net.minecraft.world.item.ItemStack;
+import net.minecraft.world.item.crafting.*;
+import net.minecraft.world.level.Level;
+
+import java.util.BitSet;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Narrows {@link RecipeManager#getRecipeFor} down to the recipes that could possibly match a container.
+ * <p>
+ * Each recipe is bucketed under the items of one of its ingredients; a recipe can only match if the container holds
+ * one of those items. Recipes whose matching logic is not known to be driven by their ingredients are always
+ * tested. Candidates are tested in the original order, so the first match is the same recipe vanilla would return.
+ */
+public class RecipeLookupIndex {
+    /**
+     * Recipe classes whose matches() only accepts containers holding an item of each of their ingredients.
+     * Subclasses are excluded, as they may override matching.
+     */
+    private static final Set<Class<?>> INDEXABLE_RECIPES = ImmutableSet.of(
+            ShapedRecipe.class,
+            ShapelessRecipe.class,
+            SmeltingRecipe.class,
+            BlastingRecipe.class,
+            SmokingRecipe.class,
+            CampfireCookingRecipe.class,
+            StonecutterRecipe.class
+    );
+
+    private final Map<RecipeType<?>, Map<ResourceLocation, Recipe<?>>> source;
+    private final TagContainer tags;
+    private final Map<RecipeType<?>, TypeIndex> typeIndices = new ConcurrentHashMap<>();
+    /* the last recipe matched for each container, weakly keyed by identity */
+    private final Cache<Container, Recipe<?>> lastMatches = CacheBuilder.newBuilder().weakKeys().maximumSize(1024).build();
+
+    public RecipeLookupIndex(Map<RecipeType<?>, Map<ResourceLocation, Recipe<?>>> source) {
+        this.source = source;
+        this.tags = SerializationTags.getInstance();
+    }
+
+    /**
+     * @return whether this index was built for the given recipes and the current tags
+     */
+    public boolean isValidFor(Map<RecipeType<?>, Map<ResourceLocation, Recipe<?>>> recipes) {
+        return this.source == recipes && this.tags == SerializationTags.getInstance();
+    }
+
+    private TypeIndex getTypeIndex(RecipeType<?> type, Map<ResourceLocation, ? extends Recipe<?>> recipes) {
+        TypeIndex index = typeIndices.get(type);
+        /* some mods edit the per-type maps in place, so check that the map has not changed */
+        if(index == null || index.source != recipes || index.sourceSize != recipes.size()) {
+            index = new TypeIndex(recipes);
+            typeIndices.put(type, index);
+        }
+        return index;
+    }
+
+    public <C extends Container, T extends Recipe<C>> Optional<T> getRecipeFor(RecipeType<T> type, C container, Level level, Map<ResourceLocation, Recipe<C>> recipes) {
+        if(recipes.isEmpty())
+            return Optional.empty();
+        TypeIndex index = getTypeIndex(type, recipes);
+        Optional<T> result = getRecipeFor(type, container, level, index);
+        if(result.isPresent() && recipes.get(result.get().getId()) != result.get()) {
+            /* a recipe was replaced in place without changing the size of the map, so the index is stale */
+            index = new TypeIndex(recipes);
+            typeIndices.put(type, index);
+            result = getRecipeFor(type, container, level, index);
+        }
+        return result;
+    }
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private <C extends Container, T extends Recipe<C>> Optional<T> getRecipeFor(RecipeType<T> type, C container, Level level, TypeIndex index) {
+        BitSet candidates = index.getCandidates(container);
+        Recipe<?> lastMatch = lastMatches.getIfPresent(container);
+        int lastPosition = lastMatch != null ? index.positions.getInt(lastMatch) : -1;
+        if(lastPosition >= 0 && candidates.get(lastPosition)) {
+            Optional<T> match = type.tryMatch((Recipe)lastMatch, level, container);
+            if(match.isPresent()) {
+                /* an earlier recipe would still take priority, only those need to be checked */
+                candidates.clear(lastPosition, index.recipes.length);
+                Optional<T> earlier = findFirst(type, container, level, index, candidates);
+                if(!earlier.isPresent())
+                    return match;
+                lastMatches.put(container, earlier.get());
+                return earlier;
+            }
+            candidates.clear(lastPosition);
+        }
+        Optional<T> result = findFirst(type, container, level, index, candidates);
+        result.ifPresent(recipe -> lastMatches.put(container, recipe));
+        return result;
+    }
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private static <C extends Container, T extends Recipe<C>> Optional<T> findFirst(RecipeType<T> type, C container, Level level, TypeIndex index, BitSet candidates) {
+        for(int i = candidates.nextSetBit(0); i >= 0; i = candidates.nextSetBit(i + 1)) {
+            Optional<T> match = type.tryMatch((Recipe)index.recipes[i], level, container);
+            if(match.isPresent())
+                return match;
+        }
+        return Optional.empty();
+    }
+
+    private static class TypeIndex {
+        final Map<ResourceLocation, ? extends Recipe<?>> source;
+        final int sourceSize;
+        final Recipe<?>[] recipes;
+        final Reference2IntOpenHashMap<Recipe<?>> positions;
+        final Reference2ObjectOpenHashMap<Item, int[]> candidatesByItem;
+        final BitSet alwaysCandidates;
+
+        TypeIndex(Map<ResourceLocation, ? extends Recipe<?>> source) {
+            this.source = source;
+            this.sourceSize = source.size();
+            this.recipes = source.values().toArray(new Recipe<?>[0]);
+            this.positions = new Reference2IntOpenHashMap<>(recipes.length);
+            this.positions.defaultReturnValue(-1);
+            this.alwaysCandidates = new BitSet(recipes.length);
+            Reference2ObjectOpenHashMap<Item, IntArrayList> buckets = new Reference2ObjectOpenHashMap<>();
+            for(int i = 0; i < recipes.length; i++) {
+                Recipe<?> recipe = recipes[i];
+                positions.put(recipe, i);
+                ItemStack[] keyItems = findKeyItems(recipe);
+                if(keyItems == null) {
+                    alwaysCandidates.set(i);
+                    continue;
+                }
+                for(ItemStack stack : keyItems) {
+                    IntArrayList bucket = buckets.computeIfAbsent(stack.getItem(), k -> new IntArrayList());
+                    /* an ingredient can list the same item several times */
+                    if(bucket.isEmpty() || bucket.getInt(bucket.size() - 1) != i)
+                        bucket.add(i);
+                }
+            }
+            this.candidatesByItem = new Reference2ObjectOpenHashMap<>(buckets.size());
+            buckets.forEach((item, list) -> candidatesByItem.put(item, list.toIntArray()));
+        }
+
+        /**
+         * Pick the plain ingredient with the fewest items; the recipe can only match containers holding one of them.
+         * @return the items of that ingredient, or null if the recipe must always be tested
+         */
+        private static ItemStack[] findKeyItems(Recipe<?> recipe) {
+            if(!INDEXABLE_RECIPES.contains(recipe.getClass()))
+                return null;
+            ItemStack[] best = null;
+            for(Ingredient ingredient : recipe.getIngredients()) {
+                /* custom ingredient types may match items they do not list */
+                if(ingredient.getClass() != Ingredient.class)
+                    continue;
+                ItemStack[] items = ingredient.getItems();
+                if(items.length == 0)
+                    continue;
+                if(best == null || items.length < best.length)
+                    best = items;
+            }
+            return best;
+        }
+
+        BitSet getCandidates(Container container) {
+            BitSet candidates = (BitSet)alwaysCandidates.clone();
+            for(int slot = 0; slot < container.getContainerSize(); slot++) {
+                ItemStack stack = container.getItem(slot);
+                if(stack.isEmpty())
+                    continue;
+                int[] bucket = candidatesByItem.get(stack.getItem());
+                if(bucket != null) {
+                    for(int i : bucket)
+                        candidates.set(i);
+                }
+            }
+            return candidates;
+        }
+    }
+}
@@ -0,0 +1,219 @@
+package org.embeddedt.modernfix.resources;
+
+import com.google.common.collect.ImmutableSet;
+import com.google.common.hash.Hasher;
+import com.google.common.hash.Hashing;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
+import net.minecraft.SharedConstants;
+import net.minecraft.core.NonNullList;
+import net.minecraft.core.Registry;
+import net.minecraft.network.FriendlyByteBuf;
+import net.minecraft.network.protocol.game.ClientboundUpdateRecipesPacket;
+import net.minecraft.resources.ResourceLocation;
+import net.minecraft.server.packs.AbstractPackResources;
+import net.minecraft.server.packs.PackResources;
+import net.minecraft.server.packs.VanillaPackResources;
+import net.minecraft.server.packs.resources.ResourceManager;
+import net.minecraft.world.item.ItemStack;
+import net.minecraft.world.item.crafting.Ingredient;
+import net.minecraft.world.item.crafting.Recipe;
+import org.embeddedt.modernfix.ModernFix;
+import org.embeddedt.modernfix.common.mixin.perf.snapshot_recipes.AbstractPackResourcesAccessor;
+import org.embeddedt.modernfix.platform.ModernFixPlatformHooks;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Stores the parsed recipes of the last datapack load on disk, in the same binary form used to sync recipes to
+ * clients, so that a later load with identical datapacks can skip reading and parsing every recipe JSON.
+ */
+public class RecipeSnapshot {
+    private static final int MAGIC = 0x4D465253;
+    private static final int FORMAT_VERSION = 2;
+    /**
+     * Namespaces of recipe serializers whose network form contains everything their JSON form does.
+     */
+    private static final Set<String> COMPLETE_SERIALIZER_NAMESPACES = ImmutableSet.of("minecraft");
+
+    private static Path getSnapshotFile() {
+        return ModernFixPlatformHooks.getGameDirectory().resolve("modernfix").resolve("recipeSnapshot.bin");
+    }
+
+    /**
+     * Computes a key identifying the content the recipes would be parsed from: the selected packs and the
+     * modification stamps of their files, the loaded mods, and the config directory (which recipe conditions
+     * may read).
+     * @return the key, or null if the content cannot be identified reliably
+     */
+    public static String computeKey(ResourceManager manager) {
+        Hasher hasher = Hashing.sha256().newHasher();
+        hasher.putInt(FORMAT_VERSION);
+        hasher.putString(SharedConstants.getCurrentVersion().getId(), StandardCharsets.UTF_8);
+        hasher.putString(ModernFixPlatformHooks.getModListFingerprint(), StandardCharsets.UTF_8);
+        try {
+            stampPath(hasher, ModernFixPlatformHooks.getGameDirectory().resolve("config"));
+            List<PackResources> packs = manager.listPacks().collect(Collectors.toList());
+            for(PackResources pack : packs) {
+                hasher.putString(pack.getName(), StandardCharsets.UTF_8);
+                hasher.putString(pack.getClass().getName(), StandardCharsets.UTF_8);
+                if(pack instanceof VanillaPackResources)
+                    continue; /* covered by the game version */
+                if(pack instanceof AbstractPackResources) {
+                    File file = ((AbstractPackResourcesAccessor)pack).getFile();
+                    if(file != null)
+                        stampPath(hasher, file.toPath());
+                }
+                /* other pack types are provided by mods, which are covered by the mod list fingerprint */
+            }
+        } catch(IOException | RuntimeException e) {
+            ModernFix.LOGGER.debug("Unable to compute recipe snapshot key", e);
+            return null;
+        }
+        return hasher.hash().toString();
+    }
+
+    private static void stampPath(Hasher hasher, Path root) throws IOException {
+        if(!Files.exists(root)) {
+            hasher.putString("missing:" + root, StandardCharsets.UTF_8);
+            return;
+        }
+        if(!Files.isDirectory(root)) {
+            BasicFileAttributes attrs = Files.readAttributes(root, BasicFileAttributes.class);
+            hasher.putLong(attrs.size());
+            hasher.putLong(attrs.lastModifiedTime().toMillis());
+            return;
+        }
+        List<Path> files;
+        try(Stream<Path> stream = Files.walk(root)) {
+            files = stream.filter(Files::isRegularFile).sorted().collect(Collectors.toList());
+        }
+        for(Path file : files) {
+            BasicFileAttributes attrs = Files.readAttributes(file, BasicFileAttributes.class);
+            hasher.putString(root.relativize(file).toString(), StandardCharsets.UTF_8);
+            hasher.putLong(attrs.size());
+            hasher.putLong(attrs.lastModifiedTime().toMillis());
+        }
+    }
+
+    /**
+     * @return the recipes stored for the given key, or null if there is no usable snapshot
+     */
+    public static List<Recipe<?>> load(String key) {
+        Path file = getSnapshotFile();
+        if(!Files.exists(file))
+            return null;
+        try {
+            FriendlyByteBuf buf = new FriendlyByteBuf(Unpooled.wrappedBuffer(Files.readAllBytes(file)));
+            if(buf.readInt() != MAGIC || buf.readInt() != FORMAT_VERSION || !key.equals(buf.readUtf(128)))
+                return null;
+            int count = buf.readVarInt();
+            List<Recipe<?>> recipes = new ArrayList<>(count);
+            for(int i = 0; i < count; i++) {
+                recipes.add(ClientboundUpdateRecipesPacket.fromNetwork(buf));
+            }
+            return recipes;
+        } catch(IOException | RuntimeException e) {
+            ModernFix.LOGGER.warn("Unable to read recipe snapshot, recipes will be parsed normally", e);
+            return null;
+        }
+    }
+
+    /**
+     * Serializes the given recipes under the given key, using their network serializers.
+     * <p>
+     * The network form is meant for syncing recipes to clients, and a serializer may leave out fields only the
+     * server needs. Only the vanilla serializers are known to write everything, so if any recipe uses another
+     * serializer, no snapshot is written. Every recipe is also decoded again and compared against the recipe parsed
+     * from JSON (ID, type, serializer, group, result item and the items of every ingredient), and re-encoding the
+     * copy must give the same bytes. Tag ingredients are restored as the item lists the tags resolved to when the
+     * snapshot was written; the snapshot key covers the packs and mods the tags come from.
+     */    public static void save(String key, Collection<Recipe<?>> recipes) {
+        long start = System.nanoTime();
+        for(Recipe<?> recipe : recipes) {
+            ResourceLocation serializerId = Registry.RECIPE_SERIALIZER.getKey(recipe.getSerializer());
+            if(serializerId == null || !COMPLETE_SERIALIZER_NAMESPACES.contains(serializerId.getNamespace())) {
+                ModernFix.LOGGER.info("Recipe {} uses serializer {}, which may not store all of its data, not writing recipe snapshot", recipe.getId(), serializerId);
+                return;
+            }
+        }
+        FriendlyByteBuf out = new FriendlyByteBuf(Unpooled.buffer());
+        out.writeInt(MAGIC);
+        out.writeInt(FORMAT_VERSION);
+        out.writeUtf(key, 128);
+        out.writeVarInt(recipes.size());
+        FriendlyByteBuf scratch = new FriendlyByteBuf(Unpooled.buffer());
+        for(Recipe<?> recipe : recipes) {
+            try {
+                scratch.clear();
+                ClientboundUpdateRecipesPacket.toNetwork(recipe, scratch);
+                int length = scratch.writerIndex();
+                Recipe<?> copy = ClientboundUpdateRecipesPacket.fromNetwork(scratch);
+                if(scratch.readerIndex() != length || !isEquivalent(recipe, copy)) {
+                    ModernFix.LOGGER.warn("Recipe {} does not survive serialization, not writing recipe snapshot", recipe.getId());
+                    return;
+                }
+                ClientboundUpdateRecipesPacket.toNetwork(copy, scratch);
+                if(scratch.writerIndex() != length * 2 || !scratch.slice(0, length).equals(scratch.slice(length, length))) {
+                    ModernFix.LOGGER.warn("Recipe {} does not serialize consistently, not writing recipe snapshot", recipe.getId());
+                    return;
+                }
+                out.writeBytes(scratch, 0, length);
+            } catch(RuntimeException e) {
+                ModernFix.LOGGER.warn("Recipe {} could not be serialized, not writing recipe snapshot", recipe.getId(), e);
+                return;
+            }
+        }
+        Path file = getSnapshotFile();
+        try {
+            Files.createDirectories(file.getParent());
+            Path tmp = file.resolveSibling(file.getFileName() + ".tmp");
+            ByteBuf data = out.slice(0, out.writerIndex());
+            byte[] bytes = new byte[data.readableBytes()];
+            data.getBytes(0, bytes);
+            Files.write(tmp, bytes);
+            Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING);
+            ModernFix.LOGGER.info("Wrote recipe snapshot with {} recipes in {} ms", recipes.size(), (System.nanoTime() - start) / 1000000);
+        } catch(IOException e) {
+            ModernFix.LOGGER.warn("Unable to write recipe snapshot", e);
+        }
+    }
+
+    /**
+     * Compare the parts of a recipe that recipe lookups and recipe viewers read.
+     */
+    private static boolean isEquivalent(Recipe<?> original, Recipe<?> copy) {
+        if(original.getClass() != copy.getClass()
+                || !original.getId().equals(copy.getId())
+                || original.getType() != copy.getType()
+                || original.getSerializer() != copy.getSerializer()
+                || !original.getGroup().equals(copy.getGroup())
+                || !ItemStack.matches(original.getResultItem(), copy.getResultItem()))
+            return false;
+        NonNullList<Ingredient> originalIngredients = original.getIngredients();
+        NonNullList<Ingredient> copyIngredients = copy.getIngredients();
+        if(originalIngredients.size() != copyIngredients.size())
+            return false;
+        for(int i = 0; i < originalIngredients.size(); i++) {
+            ItemStack[] originalItems = originalIngredients.get(i).getItems();
+            ItemStack[] copyItems = copyIngredients.get(i).getItems();
+            if(originalItems.length != copyItems.length)
+                return false;
+            for(int j = 0; j < originalItems.length; j++) {
+                if(!ItemStack.matches(originalItems[j], copyItems[j]))
+                    return false;
+            }
+        }
+        return true;
+    }
+}
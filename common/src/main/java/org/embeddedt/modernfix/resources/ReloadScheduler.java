@@ -0,0 +1,174 @@
+package org.embeddedt.modernfix.resources;
+
+import com.google.gson.Gson;
+import com.google.gson.reflect.TypeToken;
+import net.minecraft.Util;
+import org.embeddedt.modernfix.ModernFix;
+import org.embeddedt.modernfix.core.ModernFixMixinPlugin;
+import org.embeddedt.modernfix.platform.ModernFixPlatformHooks;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+import java.lang.reflect.Type;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.PriorityBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Orders the background work of reload listeners so that the listeners that took longest during previous reloads
+ * start first.
+ * <p>
+ * Vanilla hands every listener's preparation tasks to the executor in registration order, so an expensive listener
+ * registered late (e.g. the model manager behind dozens of cheap mod listeners) starts late and the whole reload
+ * waits on it. Here each submitted task goes into a priority queue keyed by its listener's historical cost, and
+ * the executor only receives a stub that runs the most expensive pending task at the time it is picked up. The set
+ * of tasks and the order of the apply stages are unchanged; only the order in which queued preparation work starts
+ * differs.
+ */
+public class ReloadScheduler {
+    public static final boolean ENABLED = ModernFixMixinPlugin.instance.isOptionEnabled("perf.reload_scheduler.ReloadScheduler");
+
+    /* weight of the latest measurement in the moving average of each listener's cost */
+    private static final double SMOOTHING = 0.5;
+
+    private static final Map<String, Double> expectedCostMillis = new ConcurrentHashMap<>();
+    private static final Map<Executor, PriorityBlockingQueue<Task>> queues = new ConcurrentHashMap<>();
+    private static final AtomicLong nextSequence = new AtomicLong();
+    private static final AtomicBoolean savePending = new AtomicBoolean(false);
+
+    static {
+        if(ENABLED)
+            load();
+    }
+
+    private static Path getHistoryFile() {
+        return ModernFixPlatformHooks.getGameDirectory().resolve("modernfix").resolve("reloadListenerCosts.json");
+    }
+
+    private static Type historyType() {
+        return new TypeToken<Map<String, Double>>() {}.getType();
+    }
+
+    private static void load() {
+        Path file = getHistoryFile();
+        if(!Files.exists(file))
+            return;
+        try(Reader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            Map<String, Double> costs = new Gson().fromJson(reader, historyType());
+            if(costs != null) {
+                costs.forEach((name, cost) -> {
+                    if(name != null && cost != null)
+                        expectedCostMillis.put(name, cost);
+                });
+            }
+        } catch(IOException | RuntimeException e) {
+            ModernFix.LOGGER.warn("Couldn't read reload listener cost history", e);
+        }
+    }
+
+    private static void save() {
+        Path file = getHistoryFile();
+        try {
+            Files.createDirectories(file.getParent());
+            Path tmp = file.resolveSibling("reloadListenerCosts.json.tmp");
+            try(Writer writer = Files.newBufferedWriter(tmp, StandardCharsets.UTF_8)) {
+                new Gson().toJson(new HashMap<>(expectedCostMillis), historyType(), writer);
+            }
+            Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING);
+        } catch(IOException | RuntimeException e) {
+            ModernFix.LOGGER.warn("Couldn't save reload listener cost history", e);
+        }
+    }
+
+    private static double getExpectedCost(String listener) {
+        Double cost = expectedCostMillis.get(listener);
+        if(cost != null)
+            return cost;
+        /* assume a listener we haven't seen yet is average */
+        return expectedCostMillis.values().stream().mapToDouble(Double::doubleValue).average().orElse(0);
+    }
+
+    private static void recordCost(String listener, long nanos) {
+        double millis = nanos / (double)TimeUnit.MILLISECONDS.toNanos(1);
+        expectedCostMillis.merge(listener, millis, (old, latest) -> old * (1 - SMOOTHING) + latest * SMOOTHING);
+        /* listeners finish in quick succession, write the history once they are done */
+        if(savePending.compareAndSet(false, true)) {
+            Util.ioPool().execute(() -> {
+                savePending.set(false);
+                save();
+            });
+        }
+    }
+
+    public static Tracker track(String listener) {
+        return new Tracker(listener, getExpectedCost(listener));
+    }
+
+    private static class Task implements Comparable<Task> {
+        final Runnable runnable;
+        final double priority;
+        final long sequence;
+
+        Task(Runnable runnable, double priority) {
+            this.runnable = runnable;
+            this.priority = priority;
+            this.sequence = nextSequence.getAndIncrement();
+        }
+
+        @Override
+        public int compareTo(Task o) {
+            int cmp = Double.compare(o.priority, this.priority);
+            /* fall back to submission order, like the executor would */
+            return cmp != 0 ? cmp : Long.compare(this.sequence, o.sequence);
+        }
+    }
+
+    /**
+     * Schedules and measures the background work of one listener during one reload.
+     */
+    public static class Tracker {
+        private final String listener;
+        private final double priority;
+        private final LongAdder cost = new LongAdder();
+
+        private Tracker(String listener, double priority) {
+            this.listener = listener;
+            this.priority = priority;
+        }
+
+        public Executor wrap(Executor executor) {
+            PriorityBlockingQueue<Task> queue = queues.computeIfAbsent(executor, e -> new PriorityBlockingQueue<>());
+            return runnable -> {
+                queue.add(new Task(() -> {
+                    long start = System.nanoTime();
+                    try {
+                        runnable.run();
+                    } finally {
+                        cost.add(System.nanoTime() - start);
+                    }
+                }, priority));
+                /* one stub per task, so every queued task is eventually run by some stub */
+                executor.execute(() -> {
+                    Task task = queue.poll();
+                    if(task != null)
+                        task.runnable.run();
+                });
+            };
+        }
+
+        public void finish() {
+            recordCost(this.listener, this.cost.sum());
+        }
+    }
+}
@@ -0,0 +1,161 @@
+package org.embeddedt.modernfix.searchtree;
+
+import it.unimi.dsi.fastutil.ints.IntArrays;
+
+import java.util.Arrays;
+import java.util.BitSet;
+
+/**
+ * Substring index over a set of strings, each owned by an integer entry. Unlike vanilla's SuffixArray this
+ * stores everything in primitive arrays over a single concatenated character buffer, which keeps both the
+ * memory footprint and the build time down for large modpacks.
+ */
+public final class CompactSuffixArray {
+    /** Separates strings in the buffer. Sorts below every other character, so no match can cross it. */
+    private static final char SEPARATOR = '\0';
+
+    private final char[] text;
+    /** Start offsets of suffixes, sorted lexicographically. */
+    private final int[] suffixes;
+    /** Start offset and owner of every string, in buffer order. */
+    private final int[] stringStarts;
+    private final int[] stringOwners;
+
+    private CompactSuffixArray(char[] text, int[] suffixes, int[] stringStarts, int[] stringOwners) {
+        this.text = text;
+        this.suffixes = suffixes;
+        this.stringStarts = stringStarts;
+        this.stringOwners = stringOwners;
+    }
+
+    private int compareSuffixes(int a, int b) {
+        char[] text = this.text;
+        while(true) {
+            char ca = text[a], cb = text[b];
+            if(ca != cb)
+                return Character.compare(ca, cb);
+            if(ca == SEPARATOR)
+                return 0;
+            a++;
+            b++;
+        }
+    }
+
+    /**
+     * Compares the suffix at the given offset against the query, treating the suffix as equal if the query
+     * is a prefix of it.
+     */
+    private int compareToQuery(int suffix, String query) {
+        char[] text = this.text;
+        for(int i = 0; i < query.length(); i++) {
+            char c = text[suffix + i];
+            char q = query.charAt(i);
+            if(c != q)
+                return Character.compare(c, q);
+            /* the buffer always ends with a separator, and the query cannot match one, so this never overruns */
+        }
+        return 0;
+    }
+
+    private int lowerBound(String query, int from, int to) {
+        while(from < to) {
+            int mid = (from + to) >>> 1;
+            if(compareToQuery(suffixes[mid], query) < 0)
+                from = mid + 1;
+            else
+                to = mid;
+        }
+        return from;
+    }
+
+    private int upperBound(String query, int from, int to) {
+        while(from < to) {
+            int mid = (from + to) >>> 1;
+            if(compareToQuery(suffixes[mid], query) <= 0)
+                from = mid + 1;
+            else
+                to = mid;
+        }
+        return from;
+    }
+
+    private int ownerOf(int offset) {
+        int idx = Arrays.binarySearch(stringStarts, offset);
+        if(idx < 0)
+            idx = -idx - 2;
+        return stringOwners[idx];
+    }
+
+    /**
+     * Finds all owners with a string containing the query and sets their bits. The cursor remembers the
+     * matched suffix range, so a query that extends the previous one only searches within that range.
+     */
+    public void search(Cursor cursor, String query, BitSet results) {
+        int from = 0, to = suffixes.length;
+        if(cursor.query != null && query.startsWith(cursor.query)) {
+            from = cursor.from;
+            to = cursor.to;
+        }
+        if(query.indexOf(SEPARATOR) != -1) {
+            from = to;
+        } else if(from < to) {
+            int lo = lowerBound(query, from, to);
+            to = upperBound(query, lo, to);
+            from = lo;
+        }
+        cursor.query = query;
+        cursor.from = from;
+        cursor.to = to;
+        for(int i = from; i < to; i++) {
+            results.set(ownerOf(suffixes[i]));
+        }
+    }
+
+    /**
+     * Per-caller narrowing state for {@link #search(Cursor, String, BitSet)}. Not thread-safe.
+     */
+    public static final class Cursor {
+        private String query;
+        private int from, to;
+    }
+
+    public static class Builder {
+        private char[] text = new char[4096];
+        private int textLength = 0;
+        private int[] stringStarts = new int[256];
+        private int[] stringOwners = new int[256];
+        private int stringCount = 0;
+        private int suffixCount = 0;
+
+        public void add(int owner, String str) {
+            if(str.isEmpty() || str.indexOf(SEPARATOR) != -1)
+                return;
+            if(textLength + str.length() + 1 > text.length)
+                text = Arrays.copyOf(text, Math.max(text.length * 2, textLength + str.length() + 1));
+            if(stringCount == stringStarts.length) {
+                stringStarts = Arrays.copyOf(stringStarts, stringCount * 2);
+                stringOwners = Arrays.copyOf(stringOwners, stringCount * 2);
+            }
+            stringStarts[stringCount] = textLength;
+            stringOwners[stringCount] = owner;
+            stringCount++;
+            str.getChars(0, str.length(), text, textLength);
+            textLength += str.length();
+            text[textLength++] = SEPARATOR;
+            suffixCount += str.length();
+        }
+
+        public CompactSuffixArray build() {
+            char[] finalText = Arrays.copyOf(text, textLength);
+            int[] suffixes = new int[suffixCount];
+            int n = 0;
+            for(int i = 0; i < textLength; i++) {
+                if(finalText[i] != SEPARATOR)
+                    suffixes[n++] = i;
+            }
+            CompactSuffixArray array = new CompactSuffixArray(finalText, suffixes, Arrays.copyOf(stringStarts, stringCount), Arrays.copyOf(stringOwners, stringCount));
+            IntArrays.quickSort(suffixes, array::compareSuffixes);
+            return array;
+        }
+    }
+}
@@ -0,0 +1,149 @@
+package org.embeddedt.modernfix.searchtree;
+
+import com.google.common.collect.ImmutableList;
+import net.minecraft.Util;
+import net.minecraft.client.searchtree.MutableSearchTree;
+import net.minecraft.client.searchtree.ReloadableIdSearchTree;
+import net.minecraft.resources.ResourceLocation;
+import org.embeddedt.modernfix.ModernFix;
+
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.Function;
+import java.util.stream.Stream;
+
+/**
+ * Lazy replacement for vanilla's reloadable search trees. Nothing is computed when entries are added or the tree
+ * is refreshed; the index is built the first time it is needed, and dropped again whenever the contents change.
+ * The searchable strings (e.g. tooltips) are collected on the calling thread, as mods expect tooltips to be
+ * built on the client thread; only sorting the suffix arrays happens in the background.
+ * <p>
+ * Search semantics match vanilla: an entry matches if one of its text strings or ID paths contains the query.
+ * For {@code namespace:rest} queries, the entry's ID namespace must contain the first half, and its ID path or
+ * one of its text strings must contain the second half.
+ */
+public class SuffixArraySearchTree<T> extends ReloadableIdSearchTree<T> implements MutableSearchTree<T> {
+    private final Function<T, Stream<String>> textFunction;
+    private final Function<T, Stream<ResourceLocation>> idFunction;
+    private final List<T> contents = new ArrayList<>();
+    private CompletableFuture<Index<T>> index = null;
+
+    public SuffixArraySearchTree(Function<T, Stream<String>> textFunction, Function<T, Stream<ResourceLocation>> idFunction) {
+        super(idFunction);
+        this.textFunction = textFunction;
+        this.idFunction = idFunction;
+    }
+
+    public static <T> SuffixArraySearchTree<T> idOnly(Function<T, Stream<ResourceLocation>> idFunction) {
+        return new SuffixArraySearchTree<>(t -> Stream.empty(), idFunction);
+    }
+
+    @Override
+    public void add(T pObj) {
+        this.contents.add(pObj);
+        this.index = null;
+    }
+
+    @Override
+    public void clear() {
+        this.contents.clear();
+        this.index = null;
+    }
+
+    @Override
+    public void refresh() {
+        /* tooltips and tags may have changed, rebuild on next use */
+        this.index = null;
+    }
+
+    /**
+     * Collect the searchable strings of all entries and start sorting them into an index in the background, if the
+     * index is not already built or being built. Must be called on the client thread.
+     */
+    public void prepare() {
+        if(this.index == null) {
+            long start = System.nanoTime();
+            Object[] snapshot = this.contents.toArray();
+            CompactSuffixArray.Builder textBuilder = new CompactSuffixArray.Builder();
+            CompactSuffixArray.Builder namespaceBuilder = new CompactSuffixArray.Builder();
+            CompactSuffixArray.Builder pathBuilder = new CompactSuffixArray.Builder();
+            collectStrings(snapshot, textBuilder, namespaceBuilder, pathBuilder);
+            ModernFix.LOGGER.debug("Collected search strings for {} entries in {} ms", snapshot.length, (System.nanoTime() - start) / 1000000);
+            this.index = CompletableFuture.supplyAsync(() -> new Index<T>(snapshot, textBuilder.build(), namespaceBuilder.build(), pathBuilder.build()), Util.backgroundExecutor());
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private void collectStrings(Object[] entries, CompactSuffixArray.Builder textBuilder, CompactSuffixArray.Builder namespaceBuilder, CompactSuffixArray.Builder pathBuilder) {
+        int failures = 0;
+        for(int i = 0; i < entries.length; i++) {
+            final int owner = i;
+            T entry = (T)entries[i];
+            try {
+                this.textFunction.apply(entry).forEach(str -> textBuilder.add(owner, str.toLowerCase(Locale.ROOT)));
+                this.idFunction.apply(entry).forEach(id -> {
+                    namespaceBuilder.add(owner, id.getNamespace().toLowerCase(Locale.ROOT));
+                    pathBuilder.add(owner, id.getPath().toLowerCase(Locale.ROOT));
+                });
+            } catch(RuntimeException e) {
+                if(failures++ == 0)
+                    ModernFix.LOGGER.error("Error indexing search tree entry " + entry, e);
+            }
+        }
+        if(failures > 1)
+            ModernFix.LOGGER.error("{} entries could not be indexed for searching", failures);
+    }
+
+    @Override
+    public List<T> search(String pSearchText) {
+        this.prepare();
+        Index<T> index;
+        try {
+            index = this.index.join();
+        } catch(CompletionException e) {
+            ModernFix.LOGGER.error("Search index could not be built", e.getCause());
+            return Collections.emptyList();
+        }
+        return index.search(pSearchText);
+    }
+
+    private static class Index<T> {
+        private final Object[] entries;
+        private final CompactSuffixArray text, namespaces, paths;
+        private final CompactSuffixArray.Cursor textCursor = new CompactSuffixArray.Cursor();
+        private final CompactSuffixArray.Cursor namespaceCursor = new CompactSuffixArray.Cursor();
+        private final CompactSuffixArray.Cursor pathCursor = new CompactSuffixArray.Cursor();
+
+        Index(Object[] entries, CompactSuffixArray text, CompactSuffixArray namespaces, CompactSuffixArray paths) {
+            this.entries = entries;
+            this.text = text;
+            this.namespaces = namespaces;
+            this.paths = paths;
+        }
+
+        @SuppressWarnings("unchecked")
+        synchronized List<T> search(String query) {
+            BitSet matches = new BitSet(entries.length);
+            int colon = query.indexOf(':');
+            if(colon == -1) {
+                text.search(textCursor, query, matches);
+                paths.search(pathCursor, query, matches);
+            } else {
+                /* namespace(before) & (path(after) | text(after)), like vanilla */
+                String rest = query.substring(colon + 1).trim();
+                text.search(textCursor, rest, matches);
+                paths.search(pathCursor, rest, matches);
+                BitSet namespaceMatches = new BitSet(entries.length);
+                namespaces.search(namespaceCursor, query.substring(0, colon).trim(), namespaceMatches);
+                matches.and(namespaceMatches);
+            }
+            /* keep insertion order, like vanilla */
+            ImmutableList.Builder<T> results = ImmutableList.builder();
+            for(int i = matches.nextSetBit(0); i >= 0; i = matches.nextSetBit(i + 1)) {
+                results.add((T)entries[i]);
+            }
+            return results.build();
+        }
+    }
+}
@@ -0,0 +1,125 @@
+package org.embeddedt.modernfix.util;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Lock-free histogram of nanosecond durations with log-linear buckets, in the spirit of HdrHistogram but without
+ * the dependency. Each power of two is split into four buckets, so recorded values are reported with at most 25%
+ * error, which is plenty for telling a 2ms stage from a 20ms one.
+ */
+public class LatencyHistogram {
+    private static final int SUB_BUCKET_BITS = 2;
+    private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+    /* values below this are stored exactly */
+    private static final int LINEAR_LIMIT = SUB_BUCKETS * 4;
+    private static final int LINEAR_BITS = 4;
+    private static final int BUCKET_COUNT = LINEAR_LIMIT + (64 - LINEAR_BITS) * SUB_BUCKETS;
+
+    private final AtomicLongArray buckets = new AtomicLongArray(BUCKET_COUNT);
+    private final LongAdder count = new LongAdder();
+    private final LongAdder total = new LongAdder();
+
+    private static int bucketFor(long value) {
+        if(value < LINEAR_LIMIT)
+            return (int)Math.max(value, 0);
+        int exponent = 63 - Long.numberOfLeadingZeros(value);
+        int sub = (int)(value >>> (exponent - SUB_BUCKET_BITS)) & (SUB_BUCKETS - 1);
+        return LINEAR_LIMIT + (exponent - LINEAR_BITS) * SUB_BUCKETS + sub;
+    }
+
+    /**
+     * @return the largest value that maps to the given bucket
+     */
+    private static long upperBoundOf(int bucket) {
+        if(bucket < LINEAR_LIMIT)
+            return bucket;
+        int exponent = (bucket - LINEAR_LIMIT) / SUB_BUCKETS + LINEAR_BITS;
+        int sub = (bucket - LINEAR_LIMIT) % SUB_BUCKETS;
+        long lower = (1L << exponent) | ((long)sub << (exponent - SUB_BUCKET_BITS));
+        return lower + (1L << (exponent - SUB_BUCKET_BITS)) - 1;
+    }
+
+    public void record(long nanos) {
+        buckets.incrementAndGet(bucketFor(nanos));
+        count.increment();
+        total.add(Math.max(nanos, 0));
+    }
+
+    public long getCount() {
+        return count.sum();
+    }
+
+    public double getMeanNanos() {
+        long n = count.sum();
+        return n == 0 ? 0 : (double)total.sum() / n;
+    }
+
+    /**
+     * @param percentile the percentile to compute, between 0 and 100
+     * @return an upper bound for the value at the given percentile, or 0 if nothing was recorded
+     */
+    public long getPercentileNanos(double percentile) {
+        long[] snapshot = new long[BUCKET_COUNT];
+        long n = 0;
+        for(int i = 0; i < BUCKET_COUNT; i++) {
+            snapshot[i] = buckets.get(i);
+            n += snapshot[i];
+        }
+        if(n == 0)
+            return 0;
+        long target = Math.max(1, (long)Math.ceil(n * Math.min(percentile, 100) / 100));
+        long seen = 0;
+        for(int i = 0; i < BUCKET_COUNT; i++) {
+            seen += snapshot[i];
+            if(seen >= target)
+                return upperBoundOf(i);
+        }
+        return upperBoundOf(BUCKET_COUNT - 1);
+    }
+
+    public long getMaxNanos() {
+        for(int i = BUCKET_COUNT - 1; i >= 0; i--) {
+            if(buckets.get(i) > 0)
+                return upperBoundOf(i);
+        }
+        return 0;
+    }
+
+    /**
+     * Adds every value recorded in the other histogram to this one.
+     */
+    public void add(LatencyHistogram other) {
+        for(int i = 0; i < BUCKET_COUNT; i++) {
+            long n = other.buckets.get(i);
+            if(n > 0)
+                buckets.addAndGet(i, n);
+        }
+        count.add(other.count.sum());
+        total.add(other.total.sum());
+    }
+
+    /**
+     * Clears the histogram. Values recorded concurrently with a reset may be partially lost.
+     */
+    public void reset() {
+        for(int i = 0; i < BUCKET_COUNT; i++) {
+            buckets.set(i, 0);
+        }
+        count.reset();
+        total.reset();
+    }
+
+    /**
+     * @return a short human-readable summary in milliseconds
+     */
+    public String summarize() {
+        return String.format("n=%d mean=%.2fms p50=%.2fms p95=%.2fms p99=%.2fms max=%.2fms",
+                getCount(),
+                getMeanNanos() / 1000000.0,
+                getPercentileNanos(50) / 1000000.0,
+                getPercentileNanos(95) / 1000000.0,
+                getPercentileNanos(99) / 1000000.0,
+                getMaxNanos() / 1000000.0);
+    }
+}
@@ -3,6 +3,8 @@ package org.embeddedt.modernfix.util;
 import net.minecraft.server.packs.resources.PreparableReloadListener;
 import net.minecraft.server.packs.resources.ResourceManager;
 import net.minecraft.util.profiling.ProfilerFiller;
+import org.embeddedt.modernfix.metrics.StartupTrace;
+import org.embeddedt.modernfix.resources.ReloadScheduler;
 
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.Executor;
@@ -15,7 +17,27 @@ public class NamedPreparableResourceListener implements PreparableReloadListener
 
     @Override
     public CompletableFuture<Void> reload(PreparationBarrier stage, ResourceManager resourceManager, ProfilerFiller preparationsProfiler, ProfilerFiller reloadProfiler, Executor backgroundExecutor, Executor gameExecutor) {
-        return this.delegate.reload(stage, resourceManager, preparationsProfiler, reloadProfiler, backgroundExecutor, gameExecutor);
+        ReloadScheduler.Tracker tracker = null;
+        if(ReloadScheduler.ENABLED) {
+            tracker = ReloadScheduler.track(this.getName());
+            backgroundExecutor = tracker.wrap(backgroundExecutor);
+        }
+        /* wrap after the scheduler, so each traced task is labelled with the listener that actually submitted it */
+        if(StartupTrace.ENABLED) {
+            String name = this.delegate.getName();
+            backgroundExecutor = StartupTrace.wrapExecutor(name + " (prepare)", "reload", backgroundExecutor);
+            gameExecutor = StartupTrace.wrapExecutor(name + " (apply)", "reload", gameExecutor);
+        }
+        CompletableFuture<Void> future = this.delegate.reload(stage, resourceManager, preparationsProfiler, reloadProfiler, backgroundExecutor, gameExecutor);
+        if(tracker != null) {
+            ReloadScheduler.Tracker finalTracker = tracker;
+            future.thenRun(finalTracker::finish);
+        }
+        return future;
+    }
+
+    public PreparableReloadListener getDelegate() {
+        return this.delegate;
     }
 
     @Override
@@ -0,0 +1,68 @@
+package org.embeddedt.modernfix.world;
+
+import com.google.common.collect.Interner;
+import com.google.common.collect.Interners;
+import net.minecraft.core.IdMap;
+import net.minecraft.world.level.biome.Biome;
+
+import java.util.Arrays;
+
+/**
+ * Immutable list of the biomes used by a compressed biome container. Neighbouring chunks mostly contain the same
+ * few biomes, so palettes are interned and shared between containers. The interner only holds weak references,
+ * so palettes of unloaded chunks (and biomes of a previous world's registries) are not kept alive.
+ */
+public final class BiomePalette {
+    private static final Interner<BiomePalette> INTERNER = Interners.newWeakInterner();
+
+    private final Biome[] entries;
+    private final int hashCode;
+
+    private BiomePalette(Biome[] entries) {
+        this.entries = entries;
+        this.hashCode = Arrays.hashCode(entries);
+    }
+
+    /**
+     * @param entries the biomes in palette order, which must not be modified afterwards
+     * @return a shared palette with the given entries
+     */
+    public static BiomePalette of(Biome[] entries) {
+        return INTERNER.intern(new BiomePalette(entries));
+    }
+
+    public Biome get(int index) {
+        return this.entries[index];
+    }
+
+    public int size() {
+        return this.entries.length;
+    }
+
+    /**
+     * @return the registry IDs of the entries, in palette order
+     */
+    public int[] getIds(IdMap<Biome> registry) {
+        int[] ids = new int[this.entries.length];
+        for(int i = 0; i < ids.length; i++) {
+            ids[i] = registry.getId(this.entries[i]);
+        }
+        return ids;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if(this == o)
+            return true;
+        if(!(o instanceof BiomePalette))
+            return false;
+        BiomePalette other = (BiomePalette)o;
+        /* biomes do not override equals, so this compares by identity */
+        return this.hashCode == other.hashCode && Arrays.equals(this.entries, other.entries);
+    }
+
+    @Override
+    public int hashCode() {
+        return this.hashCode;
+    }
+}
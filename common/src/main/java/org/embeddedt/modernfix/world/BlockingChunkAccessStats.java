@@ -0,0 +1,68 @@
+package org.embeddedt.modernfix.world;
+
+import java.util.AbstractMap;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Counts off-thread chunk requests that had to block on the server thread, keyed by the first stack frame outside
+ * of the game, the mod loader and ModernFix itself. This makes it possible to tell which mods are parking worker
+ * threads on chunk loads.
+ */
+public class BlockingChunkAccessStats {
+    private static final String[] FRAMEWORK_PACKAGES = new String[] {
+            "java.",
+            "javax.",
+            "sun.",
+            "jdk.",
+            "net.minecraft.",
+            "com.mojang.",
+            "org.spongepowered.",
+            "org.embeddedt.modernfix.",
+            "net.minecraftforge.",
+            "cpw.mods.",
+            "net.fabricmc."
+    };
+
+    private static final Map<String, LongAdder> BLOCKING_CALLS = new ConcurrentHashMap<>();
+
+    /**
+     * Record a blocking chunk request from the current thread.
+     * @return the fingerprint of the caller it was counted under
+     */
+    public static String recordBlockingCall() {
+        String caller = findCaller(new Throwable().getStackTrace());
+        BLOCKING_CALLS.computeIfAbsent(caller, k -> new LongAdder()).increment();
+        return caller;
+    }
+
+    private static String findCaller(StackTraceElement[] stack) {
+        for(StackTraceElement element : stack) {
+            String className = element.getClassName();
+            boolean framework = false;
+            for(String pkg : FRAMEWORK_PACKAGES) {
+                if(className.startsWith(pkg)) {
+                    framework = true;
+                    break;
+                }
+            }
+            if(!framework)
+                return className + "." + element.getMethodName();
+        }
+        return "unknown";
+    }
+
+    /**
+     * @return the callers that have blocked so far and how often, most frequent first
+     */
+    public static List<Map.Entry<String, Long>> getBlockingCalls() {
+        List<Map.Entry<String, Long>> result = new ArrayList<>();
+        BLOCKING_CALLS.forEach((caller, count) -> result.add(new AbstractMap.SimpleImmutableEntry<>(caller, count.sum())));
+        result.sort(Map.Entry.<String, Long>comparingByValue(Comparator.reverseOrder()));
+        return result;
+    }
+}
@@ -0,0 +1,140 @@
+package org.embeddedt.modernfix.world;
+
+import net.minecraft.world.level.chunk.ChunkStatus;
+import org.embeddedt.modernfix.ModernFix;
+import org.embeddedt.modernfix.core.ModernFixMixinPlugin;
+import org.embeddedt.modernfix.util.LatencyHistogram;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Per-status timing of chunk generation steps, used to judge how the paper_chunk_patches executor changes behave.
+ * <p>
+ * For every scheduled step this records how long the task waited for its executor, how long it ran, how long the
+ * step took overall, and whether the worker hop was skipped in favour of the server thread.
+ */
+public class ChunkPipelineStats {
+    public static final boolean ENABLED = ModernFixMixinPlugin.instance.isOptionEnabled("feature.chunk_pipeline_stats.ChunkPipelineStats");
+
+    private static final long LOG_INTERVAL = TimeUnit.MINUTES.toNanos(5);
+
+    private static final List<ChunkStatus> STATUSES = ChunkStatus.getStatusList();
+    private static final StageStats[] STAGES = new StageStats[STATUSES.size()];
+
+    static {
+        for(int i = 0; i < STAGES.length; i++) {
+            STAGES[i] = new StageStats();
+        }
+    }
+
+    private static final LongAdder droppedProtoSections = new LongAdder();
+    private static final LongAdder droppedFullSections = new LongAdder();
+
+    private static final AtomicLong lastLogTime = new AtomicLong(System.nanoTime());
+    private static volatile long windowStart = System.nanoTime();
+
+    private static class StageStats {
+        final LatencyHistogram queueWait = new LatencyHistogram();
+        final LatencyHistogram execution = new LatencyHistogram();
+        final LatencyHistogram total = new LatencyHistogram();
+        final LongAdder skippedWorker = new LongAdder();
+        final LongAdder usedWorker = new LongAdder();
+        final LongAdder completed = new LongAdder();
+
+        void reset() {
+            queueWait.reset();
+            execution.reset();
+            total.reset();
+            skippedWorker.reset();
+            usedWorker.reset();
+            completed.reset();
+        }
+    }
+
+    /**
+     * Wrap a generation task before handing it to its executor.
+     * @param skippedWorker whether the task is being run on the server thread instead of a worker
+     */
+    public static Runnable wrapTask(ChunkStatus status, Runnable task, boolean skippedWorker) {
+        if(!ENABLED)
+            return task;
+        StageStats stats = STAGES[status.getIndex()];
+        (skippedWorker ? stats.skippedWorker : stats.usedWorker).increment();
+        long queued = System.nanoTime();
+        return () -> {
+            long start = System.nanoTime();
+            stats.queueWait.record(start - queued);
+            try {
+                task.run();
+            } finally {
+                stats.execution.record(System.nanoTime() - start);
+            }
+        };
+    }
+
+    /**
+     * Record that a generation step scheduled at the given time has finished.
+     */
+    public static void recordCompletion(ChunkStatus status, long scheduledTime) {
+        StageStats stats = STAGES[status.getIndex()];
+        long now = System.nanoTime();
+        stats.total.record(now - scheduledTime);
+        stats.completed.increment();
+        long lastLog = lastLogTime.get();
+        if((now - lastLog) >= LOG_INTERVAL && lastLogTime.compareAndSet(lastLog, now)) {
+            ModernFix.LOGGER.info("Chunk pipeline statistics:");
+            for(String line : getSummary())
+                ModernFix.LOGGER.info(line);
+        }
+    }
+
+    /**
+     * Record empty sections that were released instead of being kept allocated.
+     * @param fullChunk whether they were dropped from a full chunk rather than a chunk being generated
+     */
+    public static void recordDroppedSections(int count, boolean fullChunk) {
+        (fullChunk ? droppedFullSections : droppedProtoSections).add(count);
+    }
+
+    public static List<String> getSummary() {
+        List<String> lines = new ArrayList<>();
+        double seconds = Math.max((System.nanoTime() - windowStart) / 1e9, 0.001);
+        for(int i = 0; i < STAGES.length; i++) {
+            StageStats stats = STAGES[i];
+            long completed = stats.completed.sum();
+            if(completed == 0)
+                continue;
+            lines.add(String.format("%s: %.1f chunks/s, %d on server thread, %d on workers",
+                    STATUSES.get(i).getName(), completed / seconds, stats.skippedWorker.sum(), stats.usedWorker.sum()));
+            lines.add("  wait " + stats.queueWait.summarize());
+            lines.add("  run " + stats.execution.summarize());
+            lines.add("  total " + stats.total.summarize());
+        }
+        long droppedProto = droppedProtoSections.sum(), droppedFull = droppedFullSections.sum();
+        if(droppedProto > 0 || droppedFull > 0)
+            lines.add(String.format("Empty sections dropped: %d during generation, %d from full chunks", droppedProto, droppedFull));
+        List<Map.Entry<String, Long>> blockingCalls = BlockingChunkAccessStats.getBlockingCalls();
+        if(!blockingCalls.isEmpty()) {
+            lines.add("Blocking off-thread chunk requests:");
+            for(int i = 0; i < Math.min(blockingCalls.size(), 5); i++) {
+                Map.Entry<String, Long> entry = blockingCalls.get(i);
+                lines.add("  " + entry.getKey() + ": " + entry.getValue());
+            }
+        }
+        return lines;
+    }
+
+    public static void reset() {
+        for(StageStats stats : STAGES) {
+            stats.reset();
+        }
+        droppedProtoSections.reset();
+        droppedFullSections.reset();
+        windowStart = System.nanoTime();
+    }
+}
@@ -5,11 +5,13 @@ import net.minecraft.Util;
 import net.minecraft.server.MinecraftServer;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
+import org.embeddedt.modernfix.core.ModernFixMixinPlugin;
 
 import java.lang.management.ManagementFactory;
 import java.lang.management.ThreadInfo;
 import java.lang.management.ThreadMXBean;
 import java.lang.ref.WeakReference;
+import java.nio.file.Path;
 
 public class IntegratedWatchdog extends Thread {
     private static final Logger LOGGER = LogManager.getLogger();
@@ -18,11 +20,22 @@ public class IntegratedWatchdog extends Thread {
 
     private static final long MAX_TICK_DELTA = 40*1000;
 
+    public static final boolean PROFILE_SLOW_TICKS = ModernFixMixinPlugin.instance.isOptionEnabled("feature.slow_tick_profiler.IntegratedWatchdog");
+    /* ticks running longer than this are sampled */
+    private static final long PROFILE_THRESHOLD = Long.getLong("modernfix.slowTickThresholdMs", 100);
+    private static final long SAMPLE_INTERVAL = Math.max(1, Long.getLong("modernfix.slowTickSampleIntervalMs", 5));
+    /* minimum time between two written profiles, so that a server that is constantly lagging doesn't fill the disk */
+    private static final long PROFILE_COOLDOWN = Long.getLong("modernfix.slowTickCooldownMs", 30*1000);
+
+    private long lastSeenTickCount = -1;
+    private long lastTickChange = 0;
+    private long nextProfileAllowed = 0;
+
     public IntegratedWatchdog(MinecraftServer server) {
         this.server = new WeakReference<>(server);
         this.setDaemon(true);
         this.setUncaughtExceptionHandler(new DefaultUncaughtExceptionHandlerWithName(LOGGER));
-        this.setName("ModernFix integrated server watchdog");
+        this.setName("ModernFix server watchdog");
     }
 
     public static String obtainThreadDump() {
@@ -46,6 +59,57 @@ public class IntegratedWatchdog extends Thread {
         return sb.toString();
     }
 
+    private void dumpHungTick(long delta) {
+        LOGGER.error("A single server tick has taken {}, more than {} milliseconds", delta, MAX_TICK_DELTA);
+        LOGGER.error(obtainThreadDump());
+    }
+
+    /**
+     * @return whether the server thread appears to be stuck in a tick that has been running for more than the
+     * profiling threshold
+     */
+    private boolean isInSlowTick(MinecraftServer server, long curTime) {
+        int tickCount = server.getTickCount();
+        if(tickCount != lastSeenTickCount) {
+            lastSeenTickCount = tickCount;
+            lastTickChange = curTime;
+            return false;
+        }
+        /* the tick count also stops while the integrated server is paused, but then the server stays on schedule */
+        long behindSchedule = curTime - server.getNextTickTime() + 50;
+        return (curTime - lastTickChange) >= PROFILE_THRESHOLD && behindSchedule >= PROFILE_THRESHOLD;
+    }
+
+    /**
+     * Sample the server thread until the current tick finishes, then write the samples out.
+     */
+    private void profileSlowTick(MinecraftServer server) {
+        Thread serverThread = server.getRunningThread();
+        int tickCount = server.getTickCount();
+        long tickStart = lastTickChange;
+        boolean dumpedHang = false;
+        TickSampler sampler = new TickSampler();
+        while(server.isRunning() && server.getTickCount() == tickCount && serverThread.isAlive()) {
+            sampler.sample(serverThread);
+            long delta = Util.getMillis() - server.getNextTickTime();
+            if(!dumpedHang && delta > MAX_TICK_DELTA) {
+                dumpHungTick(delta);
+                dumpedHang = true;
+            }
+            try {
+                Thread.sleep(SAMPLE_INTERVAL);
+            } catch(InterruptedException ignored) {
+            }
+        }
+        long tickTime = Util.getMillis() - tickStart;
+        nextProfileAllowed = Util.getMillis() + PROFILE_COOLDOWN;
+        if(sampler.getSampleCount() == 0)
+            return;
+        Path file = sampler.write(tickTime + "ms");
+        if(file != null)
+            LOGGER.warn("A server tick took {} ms, a profile with {} samples was written to {}", tickTime, sampler.getSampleCount(), file);
+    }
+
     public void run() {
         while(true) {
             MinecraftServer server = this.server.get();
@@ -54,15 +118,23 @@ public class IntegratedWatchdog extends Thread {
             long nextTick = server.getNextTickTime();
             long curTime = Util.getMillis();
             long delta = curTime - nextTick;
+            if(PROFILE_SLOW_TICKS && curTime >= nextProfileAllowed && isInSlowTick(server, curTime)) {
+                profileSlowTick(server);
+                continue;
+            }
             if(delta > MAX_TICK_DELTA) {
-                LOGGER.error("A single server tick has taken {}, more than {} milliseconds", delta, MAX_TICK_DELTA);
-                LOGGER.error(obtainThreadDump());
+                dumpHungTick(delta);
                 nextTick = 0;
                 curTime = 0;
             }
             server = null; /* allow GC */
+            long sleepTime = nextTick + MAX_TICK_DELTA - curTime;
+            if(PROFILE_SLOW_TICKS) {
+                /* poll often enough to notice slow ticks soon after they cross the threshold */
+                sleepTime = Math.min(sleepTime, Math.max(5, PROFILE_THRESHOLD / 5));
+            }
             try {
-                Thread.sleep(nextTick + MAX_TICK_DELTA - curTime);
+                Thread.sleep(sleepTime);
             } catch(InterruptedException ignored) {
             }
         }
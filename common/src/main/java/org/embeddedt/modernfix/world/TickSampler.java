@@ -0,0 +1,82 @@
+package org.embeddedt.modernfix.world;
+
+import org.embeddedt.modernfix.ModernFix;
+import org.embeddedt.modernfix.platform.ModernFixPlatformHooks;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.text.SimpleDateFormat;
+import java.util.*;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Aggregates stack samples of a single thread into collapsed stacks (one line per distinct stack, frames from the
+ * root down separated by semicolons, followed by the sample count). This is the input format of flamegraph.pl and
+ * is understood directly by speedscope and most other flame graph viewers.
+ */
+public class TickSampler {
+    private static final int MAX_PROFILE_FILES = 20;
+
+    private final Map<String, Integer> stacks = new HashMap<>();
+    private int sampleCount = 0;
+
+    public void sample(Thread thread) {
+        StackTraceElement[] trace = thread.getStackTrace();
+        if(trace.length == 0)
+            return;
+        StringBuilder sb = new StringBuilder();
+        for(int i = trace.length - 1; i >= 0; i--) {
+            sb.append(trace[i].getClassName()).append('.').append(trace[i].getMethodName());
+            if(i > 0)
+                sb.append(';');
+        }
+        stacks.merge(sb.toString(), 1, Integer::sum);
+        sampleCount++;
+    }
+
+    public int getSampleCount() {
+        return sampleCount;
+    }
+
+    /**
+     * Write the collected samples to a new file under modernfix/profiles, removing the oldest profiles so that only
+     * the most recent few are kept.
+     * @return the written file, or null if writing failed
+     */
+    public Path write(String description) {
+        Path dir = ModernFixPlatformHooks.getGameDirectory().resolve("modernfix").resolve("profiles");
+        String timestamp = new SimpleDateFormat("yyyy-MM-dd_HH.mm.ss.SSS").format(new Date());
+        Path file = dir.resolve("tick-" + timestamp + "-" + description + ".txt");
+        try {
+            Files.createDirectories(dir);
+            try(BufferedWriter writer = Files.newBufferedWriter(file, StandardCharsets.UTF_8)) {
+                for(Map.Entry<String, Integer> entry : stacks.entrySet()) {
+                    writer.write(entry.getKey());
+                    writer.write(' ');
+                    writer.write(Integer.toString(entry.getValue()));
+                    writer.write('\n');
+                }
+            }
+            pruneOldProfiles(dir);
+            return file;
+        } catch(IOException e) {
+            ModernFix.LOGGER.error("Couldn't write tick profile", e);
+            return null;
+        }
+    }
+
+    private static void pruneOldProfiles(Path dir) throws IOException {
+        List<Path> profiles;
+        try(Stream<Path> stream = Files.list(dir)) {
+            /* the timestamp in the name sorts chronologically */
+            profiles = stream.filter(p -> p.getFileName().toString().startsWith("tick-")).sorted().collect(Collectors.toList());
+        }
+        for(int i = 0; i < profiles.size() - MAX_PROFILE_FILES; i++) {
+            Files.deleteIfExists(profiles.get(i));
+        }
+    }
+}
@@ -73,6 +73,15 @@ public class ModernFixPlatformHooksImpl {
         return FabricLoader.getInstance().getGameDir();
     }
 
+    public static String getModListFingerprint() {
+        StringBuilder sb = new StringBuilder();
+        for(ModContainer container : FabricLoader.getInstance().getAllMods()) {
+            ModMetadata metadata = container.getMetadata();
+            sb.append(metadata.getId()).append('@').append(metadata.getVersion().getFriendlyString()).append('\n');
+        }
+        return sb.toString();
+    }
+
     public static void sendPacket(ServerPlayer player, Object packet) {
         //PacketHandler.INSTANCE.send(PacketDistributor.PLAYER.with(() -> player), packet);
     }
@@ -0,0 +1,394 @@
+package org.embeddedt.modernfix.forge.classloading;
+
+import it.unimi.dsi.fastutil.ints.IntArrayList;
+import it.unimi.dsi.fastutil.objects.Object2ObjectOpenHashMap;
+
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.*;
+
+/**
+ * Compact index of which mod files contain a given path. Everything lives in one buffer, which is memory-mapped
+ * straight from disk on the next launch if none of the mod files have changed.
+ * <p></p>
+ * File layout:
+ * <ul>
+ *     <li>magic, version, header length</li>
+ *     <li>header: mod file count, then path, size, modification time and mod ID of each mod file</li>
+ *     <li>path count, owner count, string pool size</li>
+ *     <li>offset of each path into the string pool, sorted by the UTF-8 bytes of the path</li>
+ *     <li>start of each path's range in the owner table (path count + 1 entries)</li>
+ *     <li>owner table, holding indices of mod files in the header</li>
+ *     <li>string pool, each entry being an unsigned short length followed by UTF-8 bytes</li>
+ * </ul>
+ */
+class ClassLocationIndex {
+    private static final int MAGIC = 0x4D464349;
+    private static final int VERSION = 1;
+    private static final int PREAMBLE_SIZE = 12;
+
+    /**
+     * Identifies one mod file. Files that are not regular files (e.g. exploded directories in a dev
+     * environment) are never considered unchanged, so they are walked on every launch.
+     */
+    static class ModFileKey {
+        final String path;
+        final long size;
+        final long modifiedTime;
+        final String modId;
+
+        ModFileKey(String path, long size, long modifiedTime, String modId) {
+            this.path = path;
+            this.size = size;
+            this.modifiedTime = modifiedTime;
+            this.modId = modId;
+        }
+
+        static ModFileKey of(Path filePath, String modId) {
+            try {
+                BasicFileAttributes attributes = Files.readAttributes(filePath, BasicFileAttributes.class);
+                if(attributes.isRegularFile())
+                    return new ModFileKey(filePath.toAbsolutePath().toString(), attributes.size(), attributes.lastModifiedTime().toMillis(), modId);
+            } catch(IOException | UnsupportedOperationException ignored) {
+            }
+            return new ModFileKey(filePath.toString(), -1, -1, modId);
+        }
+
+        boolean isCacheable() {
+            return size >= 0;
+        }
+
+        boolean sameFileAs(ModFileKey other) {
+            return isCacheable() && size == other.size && modifiedTime == other.modifiedTime && path.equals(other.path) && modId.equals(other.modId);
+        }
+    }
+
+    private final ModFileKey[] modFiles;
+    private final ByteBuffer buffer;
+    private final int pathCount;
+    private final int offsetsBase, ownerStartBase, ownersBase, poolBase;
+    /** Path indices owned by each mod file, built on first use by {@link #getPathsForMod(ModFileKey)}. */
+    private IntArrayList[] pathsByMod;
+
+    private ClassLocationIndex(ModFileKey[] modFiles, ByteBuffer buffer, int bodyStart) {
+        this.modFiles = modFiles;
+        this.buffer = buffer;
+        this.pathCount = buffer.getInt(bodyStart);
+        int ownerCount = buffer.getInt(bodyStart + 4);
+        this.offsetsBase = bodyStart + 12;
+        this.ownerStartBase = offsetsBase + pathCount * 4;
+        this.ownersBase = ownerStartBase + (pathCount + 1) * 4;
+        this.poolBase = ownersBase + ownerCount * 4;
+    }
+
+    public int getPathCount() {
+        return pathCount;
+    }
+
+    /**
+     * @return true if this index was built from exactly the given mod files, none of which have changed since
+     */
+    public boolean matches(List<ModFileKey> keys) {
+        return keysMatch(modFiles, keys);
+    }
+
+    private static boolean keysMatch(ModFileKey[] storedKeys, List<ModFileKey> keys) {
+        if(keys.size() != storedKeys.length)
+            return false;
+        for(int i = 0; i < storedKeys.length; i++) {
+            if(!keys.get(i).sameFileAs(storedKeys[i]))
+                return false;
+        }
+        return true;
+    }
+
+    private boolean isWellFormed() {
+        if(pathCount < 0 || poolBase < ownersBase || poolBase + 4L > buffer.limit())
+            return false;
+        int poolSize = buffer.getInt(offsetsBase - 4);
+        return ((long)poolBase + poolSize) == buffer.limit();
+    }
+
+    /**
+     * Find the paths contained in a mod file, if this index has an up-to-date copy of them.
+     * @return the list of paths, or null if the mod file is not in this index or has changed
+     */
+    public List<String> getPathsForMod(ModFileKey key) {
+        int modIndex = -1;
+        for(int i = 0; i < modFiles.length; i++) {
+            if(key.sameFileAs(modFiles[i])) {
+                modIndex = i;
+                break;
+            }
+        }
+        if(modIndex == -1)
+            return null;
+        IntArrayList pathIndices = getPathsByMod()[modIndex];
+        List<String> paths = new ArrayList<>(pathIndices.size());
+        for(int i : pathIndices) {
+            paths.add(readPath(i));
+        }
+        return paths;
+    }
+
+    /**
+     * Invert the owner table in one pass, so that looking up the paths of every reused mod file costs
+     * O(paths) in total rather than O(paths) per mod file.
+     */
+    private synchronized IntArrayList[] getPathsByMod() {
+        if(pathsByMod == null) {
+            IntArrayList[] lists = new IntArrayList[modFiles.length];
+            for(int m = 0; m < lists.length; m++) {
+                lists[m] = new IntArrayList();
+            }
+            for(int i = 0; i < pathCount; i++) {
+                int end = ownerEnd(i);
+                for(int o = ownerStart(i); o < end; o++) {
+                    int owner = buffer.getInt(ownersBase + o * 4);
+                    if(owner < 0 || owner >= lists.length)
+                        continue;
+                    IntArrayList list = lists[owner];
+                    /* a path is listed once per owner, but guard against duplicates anyway */
+                    if(list.isEmpty() || list.getInt(list.size() - 1) != i)
+                        list.add(i);
+                }
+            }
+            pathsByMod = lists;
+        }
+        return pathsByMod;
+    }
+
+    /**
+     * @return the IDs of the mods containing the given path, in mod list order
+     */
+    public List<String> getModsContaining(String path) {
+        int idx = find(path.getBytes(StandardCharsets.UTF_8));
+        if(idx < 0)
+            return Collections.emptyList();
+        int start = ownerStart(idx), end = ownerEnd(idx);
+        if((end - start) == 1)
+            return Collections.singletonList(modFiles[buffer.getInt(ownersBase + start * 4)].modId);
+        List<String> mods = new ArrayList<>(end - start);
+        for(int o = start; o < end; o++) {
+            mods.add(modFiles[buffer.getInt(ownersBase + o * 4)].modId);
+        }
+        return mods;
+    }
+
+    private int ownerStart(int pathIdx) {
+        return buffer.getInt(ownerStartBase + pathIdx * 4);
+    }
+
+    private int ownerEnd(int pathIdx) {
+        return buffer.getInt(ownerStartBase + (pathIdx + 1) * 4);
+    }
+
+    private String readPath(int pathIdx) {
+        int pos = poolBase + buffer.getInt(offsetsBase + pathIdx * 4);
+        int len = buffer.getShort(pos) & 0xFFFF;
+        byte[] bytes = new byte[len];
+        for(int i = 0; i < len; i++) {
+            bytes[i] = buffer.get(pos + 2 + i);
+        }
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private int find(byte[] key) {
+        int lo = 0, hi = pathCount - 1;
+        while(lo <= hi) {
+            int mid = (lo + hi) >>> 1;
+            int cmp = compareAt(buffer.getInt(offsetsBase + mid * 4), key);
+            if(cmp < 0)
+                lo = mid + 1;
+            else if(cmp > 0)
+                hi = mid - 1;
+            else
+                return mid;
+        }
+        return -1;
+    }
+
+    private int compareAt(int poolOffset, byte[] key) {
+        int pos = poolBase + poolOffset;
+        int len = buffer.getShort(pos) & 0xFFFF;
+        pos += 2;
+        int n = Math.min(len, key.length);
+        for(int i = 0; i < n; i++) {
+            int a = buffer.get(pos + i) & 0xFF, b = key[i] & 0xFF;
+            if(a != b)
+                return a - b;
+        }
+        return len - key.length;
+    }
+
+    private static int compareBytes(byte[] a, byte[] b) {
+        int n = Math.min(a.length, b.length);
+        for(int i = 0; i < n; i++) {
+            int x = a[i] & 0xFF, y = b[i] & 0xFF;
+            if(x != y)
+                return x - y;
+        }
+        return a.length - b.length;
+    }
+
+    private static byte[] writeHeader(List<ModFileKey> keys) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try(DataOutputStream out = new DataOutputStream(bytes)) {
+            out.writeInt(keys.size());
+            for(ModFileKey key : keys) {
+                out.writeUTF(key.path);
+                out.writeLong(key.size);
+                out.writeLong(key.modifiedTime);
+                out.writeUTF(key.modId);
+            }
+        }
+        return bytes.toByteArray();
+    }
+
+    private static ModFileKey[] readHeader(byte[] header) throws IOException {
+        try(DataInputStream in = new DataInputStream(new ByteArrayInputStream(header))) {
+            ModFileKey[] keys = new ModFileKey[in.readInt()];
+            for(int i = 0; i < keys.length; i++) {
+                String path = in.readUTF();
+                long size = in.readLong();
+                long modifiedTime = in.readLong();
+                keys[i] = new ModFileKey(path, size, modifiedTime, in.readUTF());
+            }
+            return keys;
+        }
+    }
+
+    /**
+     * Build a new index in memory.
+     * @param keys the mod files, in mod list order
+     * @param pathsPerMod the paths contained in each mod file
+     */
+    public static ClassLocationIndex build(List<ModFileKey> keys, List<List<String>> pathsPerMod) throws IOException {
+        Map<String, IntArrayList> ownersByPath = new Object2ObjectOpenHashMap<>();
+        int ownerCount = 0;
+        for(int i = 0; i < pathsPerMod.size(); i++) {
+            for(String path : pathsPerMod.get(i)) {
+                ownersByPath.computeIfAbsent(path, k -> new IntArrayList(1)).add(i);
+                ownerCount++;
+            }
+        }
+        PathEntry[] sortedPaths = new PathEntry[ownersByPath.size()];
+        int p = 0;
+        for(Map.Entry<String, IntArrayList> entry : ownersByPath.entrySet()) {
+            sortedPaths[p++] = new PathEntry(entry.getKey().getBytes(StandardCharsets.UTF_8), entry.getValue());
+        }
+        ownersByPath = null;
+        Arrays.sort(sortedPaths, (a, b) -> compareBytes(a.bytes, b.bytes));
+        int poolSize = 0;
+        for(PathEntry path : sortedPaths) {
+            poolSize += 2 + path.bytes.length;
+        }
+        byte[] header = writeHeader(keys);
+        int pathCount = sortedPaths.length;
+        int bodyStart = PREAMBLE_SIZE + header.length;
+        int totalSize = bodyStart + 12 + pathCount * 4 + (pathCount + 1) * 4 + ownerCount * 4 + poolSize;
+        ByteBuffer buffer = ByteBuffer.allocate(totalSize);
+        buffer.putInt(MAGIC).putInt(VERSION).putInt(header.length).put(header);
+        buffer.putInt(pathCount).putInt(ownerCount).putInt(poolSize);
+        int poolOffset = 0;
+        for(PathEntry path : sortedPaths) {
+            buffer.putInt(poolOffset);
+            poolOffset += 2 + path.bytes.length;
+        }
+        int ownerStart = 0;
+        for(PathEntry path : sortedPaths) {
+            buffer.putInt(ownerStart);
+            ownerStart += path.owners.size();
+        }
+        buffer.putInt(ownerStart);
+        for(PathEntry path : sortedPaths) {
+            for(int owner : path.owners) {
+                buffer.putInt(owner);
+            }
+        }
+        for(PathEntry path : sortedPaths) {
+            buffer.putShort((short)path.bytes.length).put(path.bytes);
+        }
+        buffer.flip();
+        return new ClassLocationIndex(keys.toArray(new ModFileKey[0]), buffer, bodyStart);
+    }
+
+    private static class PathEntry {
+        final byte[] bytes;
+        final IntArrayList owners;
+
+        PathEntry(byte[] bytes, IntArrayList owners) {
+            this.bytes = bytes;
+            this.owners = owners;
+        }
+    }
+
+    /**
+     * Read a previously saved index. If it matches the given mod files exactly, the file is memory-mapped,
+     * otherwise it is copied onto the heap so that the file can be replaced afterwards.
+     * @return the index, or null if the file does not exist or is not a valid index
+     */
+    public static ClassLocationIndex read(Path file, List<ModFileKey> currentKeys) throws IOException {
+        if(!Files.isRegularFile(file))
+            return null;
+        try(FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long fileSize = channel.size();
+            if(fileSize < PREAMBLE_SIZE || fileSize > Integer.MAX_VALUE)
+                return null;
+            ByteBuffer preamble = ByteBuffer.allocate(PREAMBLE_SIZE);
+            readFully(channel, preamble, 0);
+            if(preamble.getInt(0) != MAGIC || preamble.getInt(4) != VERSION)
+                return null;
+            int headerLength = preamble.getInt(8);
+            if(headerLength < 0 || (PREAMBLE_SIZE + (long)headerLength) > fileSize)
+                return null;
+            ByteBuffer header = ByteBuffer.allocate(headerLength);
+            readFully(channel, header, PREAMBLE_SIZE);
+            ModFileKey[] keys = readHeader(header.array());
+            if((PREAMBLE_SIZE + headerLength + 12L) > fileSize)
+                return null;
+            ByteBuffer body;
+            if(keysMatch(keys, currentKeys)) {
+                body = channel.map(FileChannel.MapMode.READ_ONLY, 0, fileSize);
+            } else {
+                body = ByteBuffer.allocate((int)fileSize);
+                readFully(channel, body, 0);
+            }
+            ClassLocationIndex index = new ClassLocationIndex(keys, body, PREAMBLE_SIZE + headerLength);
+            return index.isWellFormed() ? index : null;
+        } catch(EOFException | IndexOutOfBoundsException e) {
+            return null;
+        }
+    }
+
+    private static void readFully(FileChannel channel, ByteBuffer buf, long position) throws IOException {
+        while(buf.hasRemaining()) {
+            int read = channel.read(buf, position + buf.position());
+            if(read < 0)
+                throw new EOFException();
+        }
+    }
+
+    /**
+     * Save this index, replacing the given file atomically where possible.
+     */
+    public void write(Path file) throws IOException {
+        Files.createDirectories(file.getParent());
+        Path tmpFile = file.resolveSibling(file.getFileName() + ".tmp");
+        try(FileChannel channel = FileChannel.open(tmpFile, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            ByteBuffer toWrite = buffer.duplicate();
+            toWrite.clear();
+            while(toWrite.hasRemaining()) {
+                channel.write(toWrite);
+            }
+        }
+        Files.move(tmpFile, file, StandardCopyOption.REPLACE_EXISTING);
+    }
+}
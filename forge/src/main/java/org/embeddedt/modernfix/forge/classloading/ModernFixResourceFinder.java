@@ -2,6 +2,7 @@ package org.embeddedt.modernfix.forge.classloading;
 
 import com.google.common.collect.*;
 import net.minecraftforge.fml.loading.FMLLoader;
+import net.minecraftforge.fml.loading.FMLPaths;
 import net.minecraftforge.fml.loading.LoadingModList;
 import net.minecraftforge.fml.loading.moddiscovery.*;
 import net.minecraftforge.forgespi.locating.IModFile;
@@ -22,7 +23,7 @@ import java.util.regex.Pattern;
 import java.util.stream.Stream;
 
 public class ModernFixResourceFinder {
-    private static Map<String, List<Pair<String, String>>> urlsForClass = null;
+    private static ClassLocationIndex locationIndex = null;
     private static final Class<? extends IModLocator> MINECRAFT_LOCATOR;
     private static Field explodedDirModsField = null;
     private static final Logger LOGGER = LogManager.getLogger("ModernFixResourceFinder");
@@ -36,50 +37,64 @@ public class ModernFixResourceFinder {
     }
 
     public static synchronized void init() throws ReflectiveOperationException {
-        urlsForClass = new HashMap<>();
-        Interner<String> pathInterner = Interners.newStrongInterner();
+        List<ModFileInfo> modFiles = LoadingModList.get().getModFiles();
+        List<ClassLocationIndex.ModFileKey> keys = new ArrayList<>(modFiles.size());
+        for(ModFileInfo fileInfo : modFiles) {
+            keys.add(ClassLocationIndex.ModFileKey.of(fileInfo.getFile().getFilePath(), fileInfo.getMods().get(0).getModId()));
+        }
+        Path cacheFile = FMLPaths.GAMEDIR.get().resolve("modernfix").resolve("classSearchCacheV1.bin");
+        ClassLocationIndex cachedIndex = null;
+        try {
+            cachedIndex = ClassLocationIndex.read(cacheFile, keys);
+        } catch(IOException e) {
+            LOGGER.warn("Could not read class location cache", e);
+        }
+        if(cachedIndex != null && cachedIndex.matches(keys)) {
+            locationIndex = cachedIndex;
+            return;
+        }
         //LOGGER.info("Start building list of class locations...");
-        for(ModFileInfo fileInfo : LoadingModList.get().getModFiles()) {
-            ModFile file = fileInfo.getFile();
-            IModLocator locator = file.getLocator();
-            Iterable<Path> rootPath = getRootPathForLocator(locator, file);
-            for(Path root : rootPath) {
-                if(!Files.exists(root))
-                    continue;
-                try(Stream<Path> stream = Files.walk(root)) {
-                    stream
-                            .map(root::relativize)
-                            .forEach(path -> {
-                                String strPath = path.toString();
-                                Pair<String, String> pathPair = Pair.of(fileInfo.getMods().get(0).getModId(), pathInterner.intern(strPath));
-                                List<Pair<String, String>> urlList = urlsForClass.get(strPath);
-                                if(urlList != null) {
-                                    if(urlList.size() > 1)
-                                        urlList.add(pathPair);
-                                    else {
-                                        /* Convert singleton to real list */
-                                        ArrayList<Pair<String, String>> newList = new ArrayList<>(urlList);
-                                        newList.add(pathPair);
-                                        urlsForClass.put(strPath, newList);
-                                    }
-                                } else {
-                                    /* Use a singleton list initially to keep memory usage down */
-                                    urlsForClass.put(strPath, Collections.singletonList(pathPair));
-                                }
-                            });
-                } catch(IOException e) {
-                    throw new RuntimeException(e);
-                }
+        List<List<String>> pathsPerMod = new ArrayList<>(modFiles.size());
+        int walkedFiles = 0;
+        for(int i = 0; i < modFiles.size(); i++) {
+            List<String> paths = cachedIndex != null ? cachedIndex.getPathsForMod(keys.get(i)) : null;
+            if(paths == null) {
+                paths = walkModFile(modFiles.get(i).getFile());
+                walkedFiles++;
             }
+            pathsPerMod.add(paths);
+        }
+        try {
+            locationIndex = ClassLocationIndex.build(keys, pathsPerMod);
+        } catch(IOException e) {
+            throw new RuntimeException(e);
         }
-        for(List<Pair<String, String>> list : urlsForClass.values()) {
-            if(list instanceof ArrayList)
-                ((ArrayList<Pair<String, String>>)list).trimToSize();
+        LOGGER.debug("Indexed {} paths, {} of {} mod files needed scanning", locationIndex.getPathCount(), walkedFiles, modFiles.size());
+        try {
+            locationIndex.write(cacheFile);
+        } catch(IOException e) {
+            LOGGER.warn("Could not save class location cache", e);
         }
-        urlsForClass = ImmutableMap.copyOf(urlsForClass);
         //LOGGER.info("Finish building");
     }
 
+    private static List<String> walkModFile(ModFile file) throws ReflectiveOperationException {
+        List<String> paths = new ArrayList<>();
+        Iterable<Path> rootPath = getRootPathForLocator(file.getLocator(), file);
+        for(Path root : rootPath) {
+            if(!Files.exists(root))
+                continue;
+            try(Stream<Path> stream = Files.walk(root)) {
+                stream
+                        .map(root::relativize)
+                        .forEach(path -> paths.add(path.toString()));
+            } catch(IOException e) {
+                throw new RuntimeException(e);
+            }
+        }
+        return paths;
+    }
+
     private static Iterable<Path> getRootPathForLocator(IModLocator locator, ModFile file) throws ReflectiveOperationException {
         if(locator instanceof AbstractJarFileLocator) {
             FileSystem modFs = locator.findPath(file, ".").getFileSystem();
@@ -106,11 +121,12 @@ public class ModernFixResourceFinder {
 
     public static Enumeration<URL> findAllURLsForResource(String input) {
         input = SLASH_REPLACER.matcher(input).replaceAll("/");
-        List<Pair<String, String>> urlList = urlsForClass.get(input);
-        if(urlList != null) {
-            return Iterators.asEnumeration(urlList.stream().map(pair -> {
+        List<String> modList = locationIndex.getModsContaining(input);
+        if(!modList.isEmpty()) {
+            String path = input;
+            return Iterators.asEnumeration(modList.stream().map(modId -> {
                 try {
-                    return new URL("modjar://" + pair.getLeft() + "/" + pair.getRight());
+                    return new URL("modjar://" + modId + "/" + path);
                 } catch(MalformedURLException e) {
                     throw new RuntimeException(e);
                 }
@@ -8,20 +8,40 @@ import java.util.concurrent.TimeUnit;
 import java.util.concurrent.locks.LockSupport;
 
 public class ModWorkManagerQueue extends ConcurrentLinkedDeque<Runnable> {
+    /**
+     * How often the loading screen should be redrawn while no tasks arrive.
+     */
     private static final long PARK_TIME = TimeUnit.MILLISECONDS.toNanos(25);
 
     private static final Runnable DUMMY_TASK = () -> {};
 
     private boolean shouldReturnDummyTask = false;
 
+    private volatile Thread waitingThread = null;
+
     /**
-     * Sleep for a bit if there are no tasks.
+     * Wait for a task to arrive if there are none. The waiting thread is woken as soon as a task is added,
+     * and otherwise gives up after {@link #PARK_TIME} so the loading screen can be redrawn.
      */
     @Override
     public Runnable pollFirst() {
         Runnable r = super.pollFirst();
+        if(r != null)
+            return r;
+        waitingThread = Thread.currentThread();
+        try {
+            long deadline = System.nanoTime() + PARK_TIME;
+            // check again after publishing the waiting thread, in case a task was added in between
+            while((r = super.pollFirst()) == null) {
+                long remaining = deadline - System.nanoTime();
+                if(remaining <= 0)
+                    break;
+                LockSupport.parkNanos(this, remaining);
+            }
+        } finally {
+            waitingThread = null;
+        }
         if(r == null) {
-            LockSupport.parkNanos(PARK_TIME);
             boolean isReturning = shouldReturnDummyTask;
             shouldReturnDummyTask = !shouldReturnDummyTask;
             /*
@@ -38,6 +58,40 @@ public class ModWorkManagerQueue extends ConcurrentLinkedDeque<Runnable> {
         }
     }
 
+    private void wakeWaitingThread() {
+        Thread t = waitingThread;
+        if(t != null)
+            LockSupport.unpark(t);
+    }
+
+    /* push(), add() and offer() all delegate to one of these */
+
+    @Override
+    public void addFirst(Runnable runnable) {
+        super.addFirst(runnable);
+        wakeWaitingThread();
+    }
+
+    @Override
+    public void addLast(Runnable runnable) {
+        super.addLast(runnable);
+        wakeWaitingThread();
+    }
+
+    @Override
+    public boolean offerFirst(Runnable runnable) {
+        boolean result = super.offerFirst(runnable);
+        wakeWaitingThread();
+        return result;
+    }
+
+    @Override
+    public boolean offerLast(Runnable runnable) {
+        boolean result = super.offerLast(runnable);
+        wakeWaitingThread();
+        return result;
+    }
+
     @SuppressWarnings({"unchecked", "rawtypes"})
     public static void replace() {
         try {
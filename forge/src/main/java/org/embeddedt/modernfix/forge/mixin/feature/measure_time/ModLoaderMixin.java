@@ -0,0 +1,34 @@
+package org.embeddedt.modernfix.forge.mixin.feature.measure_time;
+
+import net.minecraftforge.fml.ModLoader;
+import org.embeddedt.modernfix.metrics.StartupTrace;
+import org.spongepowered.asm.mixin.Mixin;
+import org.spongepowered.asm.mixin.injection.At;
+import org.spongepowered.asm.mixin.injection.Inject;
+import org.spongepowered.asm.mixin.injection.callback.CallbackInfo;
+
+@Mixin(value = ModLoader.class, remap = false)
+public class ModLoaderMixin {
+    private long phaseStartTime;
+
+    @Inject(method = { "gatherAndInitializeMods", "loadMods", "finishMods" }, at = @At("HEAD"), require = 0)
+    private void recordPhaseStart(CallbackInfo ci) {
+        phaseStartTime = System.nanoTime();
+    }
+
+    /* construction and registry events happen in gatherAndInitializeMods, setup and IMC in the later two */
+    @Inject(method = "gatherAndInitializeMods", at = @At("RETURN"), require = 0)
+    private void recordConstructionEnd(CallbackInfo ci) {
+        StartupTrace.record("Mod construction and registry events", "mods", phaseStartTime);
+    }
+
+    @Inject(method = "loadMods", at = @At("RETURN"), require = 0)
+    private void recordSetupEnd(CallbackInfo ci) {
+        StartupTrace.record("Mod setup", "mods", phaseStartTime);
+    }
+
+    @Inject(method = "finishMods", at = @At("RETURN"), require = 0)
+    private void recordCompleteEnd(CallbackInfo ci) {
+        StartupTrace.record("Mod load complete", "mods", phaseStartTime);
+    }
+}
@@ -1,5 +1,6 @@
 package org.embeddedt.modernfix.forge.mixin.perf.async_jei;
 
+import mezz.jei.Internal;
 import mezz.jei.api.IModPlugin;
 import mezz.jei.api.helpers.IModIdHelper;
 import mezz.jei.config.*;
@@ -28,6 +29,7 @@ import org.spongepowered.asm.mixin.injection.Inject;
 import org.spongepowered.asm.mixin.injection.callback.CallbackInfo;
 
 import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
 
 @Mixin(ClientLifecycleHandler.class)
 @RequiresMod("jei")
@@ -44,11 +46,11 @@ public class ClientLifecycleHandlerMixin {
     @Shadow(remap = false) @Final private IModIdHelper modIdHelper;
     @Shadow(remap = false) @Final private RecipeCategorySortingConfig recipeCategorySortingConfig;
     @Shadow(remap = false) @Final private IIngredientSorter ingredientSorter;
-    private volatile JEIReloadThread reloadThread = null;
+    private final AtomicReference<JEIReloadThread> reloadThread = new AtomicReference<>();
     @Inject(method = "setupJEI", at = @At(value = "INVOKE", target = "Lmezz/jei/startup/ClientLifecycleHandler;startJEI()V"), cancellable = true, remap = false)
     private void startAsync(CallbackInfo ci) {
         ci.cancel();
-        startJEIAsync(() -> Minecraft.getInstance().execute(() -> EventBusHelper.post(new PlayerJoinedWorldEvent())));
+        startJEIAsync(() -> Minecraft.getInstance().execute(() -> EventBusHelper.post(new PlayerJoinedWorldEvent())), true);
     }
 
     /**
@@ -57,37 +59,67 @@ public class ClientLifecycleHandlerMixin {
      */
     @Overwrite(remap = false)
     public void startJEI() {
-        startJEIAsync(() -> {});
+        startJEIAsync(() -> {}, false);
     }
 
     @Inject(method = "<init>", at = @At("TAIL"))
     private void setupCancellationHandler(NetworkHandler networkHandler, Textures textures, CallbackInfo ci) {
         EventBusHelper.addListener(this, ClientPlayerNetworkEvent.LoggedOutEvent.class, event -> cancelPreviousStart());
-        JEIUtil.registerLoadingRenderer(() -> reloadThread != null);
+        JEIUtil.registerLoadingRenderer(reloadThread::get);
     }
 
-    private void cancelPreviousStart() {
-        JEIReloadThread currentReloadThread = reloadThread;
-        if(currentReloadThread != null) {
+    /**
+     * Ask the running JEI thread to stop, without waiting for it. A new start waits for the old thread
+     * to wind down on its own thread, so the client never blocks here.
+     * @return the thread that was stopped, or null if none was running
+     */
+    private JEIReloadThread cancelPreviousStart() {
+        JEIReloadThread currentReloadThread = reloadThread.getAndSet(null);
+        if(currentReloadThread != null)
             currentReloadThread.requestStop();
-            if(currentReloadThread.isAlive()) {
-                ModernFix.LOGGER.warn("Blocking until JEI thread terminates");
-                Minecraft.getInstance().managedBlock(() -> !currentReloadThread.isAlive());
-            }
-            reloadThread = null;
-        }
+        return currentReloadThread;
     }
 
     private static int numReloads = 1;
 
-    private void startJEIAsync(Runnable whenFinishedCb) {
-        cancelPreviousStart();
+    /**
+     * Fingerprint of the content used by the last JEI start that ran to completion.
+     */
+    private static volatile String lastCompletedFingerprint = null;
+
+    private void startJEIAsync(Runnable whenFinishedCb, boolean allowReuse) {
+        JEIReloadThread previousThread = cancelPreviousStart();
         if(Minecraft.getInstance().level == null)
             return;
+        String fingerprint = JEIUtil.computeContentFingerprint();
+        if(allowReuse && fingerprint != null && fingerprint.equals(lastCompletedFingerprint) && Internal.getRuntime() != null) {
+            ModernFix.LOGGER.info("Recipes and tags are unchanged, reusing the existing JEI runtime.");
+            whenFinishedCb.run();
+            return;
+        }
+        lastCompletedFingerprint = null;
         ModernFix.LOGGER.info("Starting new JEI thread.");
         JEIReloadThread newThread = new JEIReloadThread(() -> {
-            if(((JEIReloadThread)Thread.currentThread()).isStopRequested())
+            JEIReloadThread self = JEIReloadThread.current();
+            if(previousThread != null && previousThread.isAlive()) {
+                /*
+                 * Always wait for the old thread to die, even if we are cancelled ourselves, so that at most one
+                 * start is ever touching JEI's state.
+                 */
+                self.startPhase("Waiting for previous JEI load to stop", -1);
+                try {
+                    previousThread.join();
+                } catch(InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    reloadThread.compareAndSet(self, null);
+                    return;
+                }
+            }
+            if(self.isStopRequested()) {
+                reloadThread.compareAndSet(self, null);
                 return;
+            }
+            boolean completed = false;
             try {
                 starter.start(
                         plugins,
@@ -100,14 +132,19 @@ public class ClientLifecycleHandlerMixin {
                         modIdHelper,
                         recipeCategorySortingConfig,
                         ingredientSorter);
+                completed = !self.isStopRequested();
             } catch(JEILoadingInterruptedException e) {
                 ModernFix.LOGGER.warn("JEI loading interrupted prematurely (this is normal)");
+            } finally {
+                /* a superseded load must not report completion, its replacement will */
+                if(reloadThread.compareAndSet(self, null) && completed) {
+                    lastCompletedFingerprint = fingerprint;
+                    whenFinishedCb.run();
+                }
             }
-            whenFinishedCb.run();
-            reloadThread = null;
         }, "ModernFix JEI Reload Thread " + numReloads++);
         newThread.setPriority(Thread.MIN_PRIORITY);
-        reloadThread = newThread;
+        reloadThread.set(newThread);
         newThread.start();
     }
 
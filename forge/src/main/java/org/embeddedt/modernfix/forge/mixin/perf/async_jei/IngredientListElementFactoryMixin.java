@@ -15,10 +15,14 @@ import org.spongepowered.asm.mixin.injection.callback.CallbackInfo;
 @Mixin(IngredientListElementFactory.class)
 @RequiresMod("jei")
 public class IngredientListElementFactoryMixin {
-    private static int ingredientNum = 0;
+    @SuppressWarnings("unchecked")
+    @Inject(method = "addToBaseList", at = @At("HEAD"))
+    private static void reportPhase(NonNullList<IIngredientListElement<?>> baseList, IIngredientManager ingredientManager, IIngredientType ingredientType, CallbackInfo ci) {
+        IAsyncJeiStarter.startPhase("Creating ingredient list: " + ingredientType.getIngredientClass().getSimpleName(), ingredientManager.getAllIngredients(ingredientType).size());
+    }
+
     @Inject(method = "addToBaseList", at = @At(value = "INVOKE", target = "Lnet/minecraft/core/NonNullList;add(Ljava/lang/Object;)Z"))
     private static void checkForInterrupt(NonNullList<IIngredientListElement<?>> baseList, IIngredientManager ingredientManager, IIngredientType ingredientType, CallbackInfo ci) {
-        if((ingredientNum++ % 100) == 0)
-            IAsyncJeiStarter.checkForLoadInterruption();
+        IAsyncJeiStarter.reportProgress();
     }
 }
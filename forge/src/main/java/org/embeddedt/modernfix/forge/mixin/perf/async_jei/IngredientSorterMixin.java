@@ -0,0 +1,36 @@
+package org.embeddedt.modernfix.forge.mixin.perf.async_jei;
+
+import mezz.jei.ingredients.IngredientSorter;
+import org.embeddedt.modernfix.annotation.RequiresMod;
+import org.embeddedt.modernfix.jei.async.IAsyncJeiStarter;
+import org.embeddedt.modernfix.jei.async.JEIReloadThread;
+import org.spongepowered.asm.mixin.Mixin;
+import org.spongepowered.asm.mixin.injection.At;
+import org.spongepowered.asm.mixin.injection.Inject;
+import org.spongepowered.asm.mixin.injection.callback.CallbackInfo;
+import org.spongepowered.asm.mixin.injection.callback.CallbackInfoReturnable;
+
+import java.util.Comparator;
+
+@Mixin(IngredientSorter.class)
+@RequiresMod("jei")
+public class IngredientSorterMixin {
+    @Inject(method = "doPreSort", at = @At("HEAD"), require = 0, remap = false)
+    private void reportPhase(CallbackInfo ci) {
+        IAsyncJeiStarter.startPhase("Sorting ingredients", -1);
+    }
+
+    /**
+     * Sorting the full ingredient list is one long call, so check for interruption from inside the comparator.
+     */
+    @Inject(method = "getComparator", at = @At("RETURN"), cancellable = true, require = 0, remap = false)
+    private void addInterruptionChecks(CallbackInfoReturnable<Comparator<Object>> cir) {
+        if(JEIReloadThread.current() == null)
+            return;
+        Comparator<Object> comparator = cir.getReturnValue();
+        cir.setReturnValue((a, b) -> {
+            IAsyncJeiStarter.reportProgress();
+            return comparator.compare(a, b);
+        });
+    }
+}
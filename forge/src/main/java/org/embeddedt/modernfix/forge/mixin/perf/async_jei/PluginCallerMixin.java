@@ -6,6 +6,7 @@ import net.minecraft.client.Minecraft;
 import org.embeddedt.modernfix.ModernFix;
 import org.embeddedt.modernfix.annotation.RequiresMod;
 import org.embeddedt.modernfix.forge.ModernFixConfig;
+import org.embeddedt.modernfix.forge.util.ParallelPluginCaller;
 import org.embeddedt.modernfix.jei.async.IAsyncJeiStarter;
 import org.spongepowered.asm.mixin.Mixin;
 import org.spongepowered.asm.mixin.injection.At;
@@ -19,6 +20,13 @@ import java.util.function.Consumer;
 @Mixin(PluginCaller.class)
 @RequiresMod("jei")
 public class PluginCallerMixin {
+    @Inject(method = "callOnPlugins", at = @At("HEAD"), cancellable = true, remap = false)
+    private static void reportPhase(String title, List<IModPlugin> plugins, Consumer<IModPlugin> func, CallbackInfo ci) {
+        IAsyncJeiStarter.startPhase(title, plugins.size());
+        if(ParallelPluginCaller.tryCallOnPlugins(title, plugins, func))
+            ci.cancel();
+    }
+
     @Inject(method = "callOnPlugins", at = @At(value = "INVOKE", target = "Ljava/util/Iterator;hasNext()Z"), remap = false)
     private static void checkForInterrupt(String title, List<IModPlugin> plugins, Consumer<IModPlugin> func, CallbackInfo ci) {
         IAsyncJeiStarter.checkForLoadInterruption();
@@ -28,11 +36,13 @@ public class PluginCallerMixin {
     @Redirect(method = "callOnPlugins", at = @At(value = "INVOKE", target = "Ljava/util/function/Consumer;accept(Ljava/lang/Object;)V"), remap = false)
     private static void runOnMainThreadIfNeeded(Consumer instance, Object pluginObj) {
         IModPlugin plugin = (IModPlugin)pluginObj;
+        IAsyncJeiStarter.setCurrentPlugin(plugin.getPluginUid().toString());
         if(ModernFixConfig.getJeiPluginBlacklist().contains(plugin.getPluginUid())) {
             ModernFix.LOGGER.warn("Going to main thread for " + plugin.getPluginUid());
             Minecraft.getInstance().executeBlocking(() -> instance.accept(plugin));
         } else {
             instance.accept(plugin);
         }
+        IAsyncJeiStarter.reportProgress();
     }
 }
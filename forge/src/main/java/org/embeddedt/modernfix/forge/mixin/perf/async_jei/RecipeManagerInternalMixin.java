@@ -13,8 +13,14 @@ import org.spongepowered.asm.mixin.injection.callback.CallbackInfo;
 @Mixin(RecipeManagerInternal.class)
 @RequiresMod("jei")
 public class RecipeManagerInternalMixin {
+    @Inject(method = "addRecipes", at = @At("HEAD"))
+    private void reportPhase(ImmutableListMultimap<ResourceLocation, Object> recipes, CallbackInfo ci) {
+        IAsyncJeiStarter.startPhase("Adding recipes", recipes.size());
+    }
+
     @Inject(method = "addRecipes", at = @At(value = "INVOKE", target = "Lmezz/jei/recipes/RecipeManagerInternal;addRecipeTyped(Ljava/lang/Object;Lnet/minecraft/resources/ResourceLocation;)V"))
     private void checkForInterrupt(ImmutableListMultimap<ResourceLocation, Object> recipes, CallbackInfo ci) {
         IAsyncJeiStarter.checkForLoadInterruption();
+        IAsyncJeiStarter.reportProgress();
     }
 }
@@ -0,0 +1,25 @@
+package org.embeddedt.modernfix.forge.mixin.perf.async_jei;
+
+import mezz.jei.load.registration.RecipeRegistration;
+import net.minecraft.resources.ResourceLocation;
+import org.embeddedt.modernfix.annotation.RequiresMod;
+import org.embeddedt.modernfix.jei.async.IAsyncJeiStarter;
+import org.spongepowered.asm.mixin.Mixin;
+import org.spongepowered.asm.mixin.injection.At;
+import org.spongepowered.asm.mixin.injection.Inject;
+import org.spongepowered.asm.mixin.injection.callback.CallbackInfo;
+
+import java.util.Collection;
+
+@Mixin(RecipeRegistration.class)
+@RequiresMod("jei")
+public class RecipeRegistrationMixin {
+    /**
+     * Plugins that register many recipe categories spend a long time inside one plugin call, so also allow
+     * interruption between each batch of recipes.
+     */
+    @Inject(method = "addRecipes", at = @At("HEAD"), remap = false)
+    private void checkForInterrupt(Collection<?> recipes, ResourceLocation recipeCategoryUid, CallbackInfo ci) {
+        IAsyncJeiStarter.checkForLoadInterruption();
+    }
+}
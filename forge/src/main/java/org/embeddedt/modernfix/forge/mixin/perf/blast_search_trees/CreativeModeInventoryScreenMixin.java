@@ -0,0 +1,31 @@
+package org.embeddedt.modernfix.forge.mixin.perf.blast_search_trees;
+
+import net.minecraft.client.Minecraft;
+import net.minecraft.client.gui.screens.inventory.CreativeModeInventoryScreen;
+import net.minecraft.client.searchtree.MutableSearchTree;
+import net.minecraft.client.searchtree.SearchRegistry;
+import org.embeddedt.modernfix.annotation.ClientOnlyMixin;
+import org.embeddedt.modernfix.searchtree.SuffixArraySearchTree;
+import org.spongepowered.asm.mixin.Mixin;
+import org.spongepowered.asm.mixin.injection.At;
+import org.spongepowered.asm.mixin.injection.Inject;
+import org.spongepowered.asm.mixin.injection.callback.CallbackInfo;
+
+@Mixin(CreativeModeInventoryScreen.class)
+@ClientOnlyMixin
+public class CreativeModeInventoryScreenMixin {
+    /**
+     * Start indexing the creative search trees as soon as the tab is opened, so the index is usually
+     * ready by the time the player types anything.
+     */
+    @Inject(method = "init", at = @At("TAIL"))
+    private void prepareSearchTrees(CallbackInfo ci) {
+        mfix$prepare(Minecraft.getInstance().getSearchTree(SearchRegistry.CREATIVE_NAMES));
+        mfix$prepare(Minecraft.getInstance().getSearchTree(SearchRegistry.CREATIVE_TAGS));
+    }
+
+    private static void mfix$prepare(MutableSearchTree<?> tree) {
+        if(tree instanceof SuffixArraySearchTree)
+            ((SuffixArraySearchTree<?>)tree).prepare();
+    }
+}
@@ -2,12 +2,14 @@ package org.embeddedt.modernfix.forge.mixin.perf.blast_search_trees;
 
 import mezz.jei.ingredients.IIngredientListElementInfo;
 import mezz.jei.ingredients.IngredientFilter;
+import org.embeddedt.modernfix.annotation.RequiresMod;
 import org.spongepowered.asm.mixin.Mixin;
 import org.spongepowered.asm.mixin.gen.Invoker;
 
 import java.util.List;
 
 @Mixin(IngredientFilter.class)
+@RequiresMod("jei")
 public interface IngredientFilterInvoker {
     @Invoker(remap = false)
     List<IIngredientListElementInfo<?>> invokeGetIngredientListUncached(String filterText);
@@ -1,11 +1,21 @@
 package org.embeddedt.modernfix.forge.mixin.perf.blast_search_trees;
 
+import net.minecraft.ChatFormatting;
 import net.minecraft.client.Minecraft;
 import net.minecraft.client.searchtree.SearchRegistry;
+import net.minecraft.core.NonNullList;
+import net.minecraft.core.Registry;
+import net.minecraft.tags.ItemTags;
+import net.minecraft.world.entity.player.Player;
+import net.minecraft.world.item.CreativeModeTab;
+import net.minecraft.world.item.Item;
+import net.minecraft.world.item.ItemStack;
+import net.minecraft.world.item.TooltipFlag;
 import net.minecraftforge.fml.ModList;
 import org.embeddedt.modernfix.annotation.ClientOnlyMixin;
 import org.embeddedt.modernfix.searchtree.DummySearchTree;
 import org.embeddedt.modernfix.forge.searchtree.JEIBackedSearchTree;
+import org.embeddedt.modernfix.searchtree.SuffixArraySearchTree;
 import org.spongepowered.asm.mixin.Final;
 import org.spongepowered.asm.mixin.Mixin;
 import org.spongepowered.asm.mixin.Shadow;
@@ -13,6 +23,8 @@ import org.spongepowered.asm.mixin.injection.At;
 import org.spongepowered.asm.mixin.injection.Inject;
 import org.spongepowered.asm.mixin.injection.callback.CallbackInfo;
 
+import java.util.stream.Stream;
+
 @Mixin(Minecraft.class)
 @ClientOnlyMixin
 public class MinecraftMixin {
@@ -24,10 +36,33 @@ public class MinecraftMixin {
         if(ModList.get().getModFileById("jei") != null) {
             this.searchRegistry.register(SearchRegistry.CREATIVE_NAMES, new JEIBackedSearchTree(false));
             this.searchRegistry.register(SearchRegistry.CREATIVE_TAGS, new JEIBackedSearchTree(true));
+            this.searchRegistry.register(SearchRegistry.RECIPE_COLLECTIONS, new DummySearchTree<>());
         } else {
-            this.searchRegistry.register(SearchRegistry.CREATIVE_NAMES, new DummySearchTree<>());
-            this.searchRegistry.register(SearchRegistry.CREATIVE_TAGS, new DummySearchTree<>());
+            /* same contents as vanilla, but the tooltips are only computed once the creative tab is opened */
+            SuffixArraySearchTree<ItemStack> nameTree = new SuffixArraySearchTree<>(
+                    stack -> mfix$getSearchableLines(stack),
+                    stack -> Stream.of(Registry.ITEM.getKey(stack.getItem())));
+            SuffixArraySearchTree<ItemStack> tagTree = SuffixArraySearchTree.idOnly(
+                    stack -> ItemTags.getAllTags().getMatchingTags(stack.getItem()).stream());
+            NonNullList<ItemStack> stacks = NonNullList.create();
+            for(Item item : Registry.ITEM) {
+                item.fillItemCategory(CreativeModeTab.TAB_SEARCH, stacks);
+            }
+            for(ItemStack stack : stacks) {
+                nameTree.add(stack);
+                tagTree.add(stack);
+            }
+            this.searchRegistry.register(SearchRegistry.CREATIVE_NAMES, nameTree);
+            this.searchRegistry.register(SearchRegistry.CREATIVE_TAGS, tagTree);
+            this.searchRegistry.register(SearchRegistry.RECIPE_COLLECTIONS, new SuffixArraySearchTree<>(
+                    collection -> collection.getRecipes().stream().flatMap(recipe -> mfix$getSearchableLines(recipe.getResultItem())),
+                    collection -> collection.getRecipes().stream().map(recipe -> Registry.ITEM.getKey(recipe.getResultItem().getItem()))));
         }
-        this.searchRegistry.register(SearchRegistry.RECIPE_COLLECTIONS, new DummySearchTree<>());
+    }
+
+    private static Stream<String> mfix$getSearchableLines(ItemStack stack) {
+        return stack.getTooltipLines((Player)null, TooltipFlag.Default.NORMAL).stream()
+                .map(component -> ChatFormatting.stripFormatting(component.getString()).trim())
+                .filter(line -> !line.isEmpty());
     }
 }
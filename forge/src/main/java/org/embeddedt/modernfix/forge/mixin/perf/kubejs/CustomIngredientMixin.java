@@ -20,10 +20,10 @@ public abstract class CustomIngredientMixin implements ICachedIngredientJS {
 
     @Override
     public Set<ItemStackJS> getCachedStacks() {
-        Set<ItemStackJS> itemSet = KubeUtil.ingredientItemCache.get(this.ingredient);
+        Set<ItemStackJS> itemSet = KubeUtil.caches().ingredientItemCache.get(this.ingredient);
         if(itemSet == null) {
             itemSet = this.getStacks();
-            KubeUtil.ingredientItemCache.put(this.ingredient, itemSet);
+            KubeUtil.caches().ingredientItemCache.put(this.ingredient, itemSet);
         }
         return itemSet;
     }
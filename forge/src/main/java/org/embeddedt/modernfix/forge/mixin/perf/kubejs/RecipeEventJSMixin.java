@@ -9,6 +9,7 @@ import net.minecraft.resources.ResourceLocation;
 import net.minecraft.world.item.crafting.RecipeManager;
 import org.embeddedt.modernfix.ModernFix;
 import org.embeddedt.modernfix.annotation.RequiresMod;
+import org.embeddedt.modernfix.forge.util.KubeRecipeIndex;
 import org.embeddedt.modernfix.forge.util.KubeUtil;
 import org.embeddedt.modernfix.forge.util.ModUtil;
 import org.spongepowered.asm.mixin.Final;
@@ -17,6 +18,7 @@ import org.spongepowered.asm.mixin.Overwrite;
 import org.spongepowered.asm.mixin.Shadow;
 import org.spongepowered.asm.mixin.injection.At;
 import org.spongepowered.asm.mixin.injection.Inject;
+import org.spongepowered.asm.mixin.injection.Redirect;
 import org.spongepowered.asm.mixin.injection.callback.CallbackInfo;
 
 import java.lang.reflect.Field;
@@ -32,17 +34,51 @@ import java.util.stream.Collectors;
 public class RecipeEventJSMixin {
     @Shadow(remap = false) @Final private List<RecipeJS> originalRecipes;
 
+    private KubeRecipeIndex mfix$recipeIndex;
+    private boolean mfix$preservingOutputs = false;
+
     /**
      * @author embeddedt
-     * @reason parallelize filtering, then run the consumer on one thread
+     * @reason use the recipe index where possible, parallelize filtering, then run the consumer on one thread
      */
     @Overwrite(remap = false)
     public void forEachRecipe(RecipeFilter filter, Consumer<RecipeJS> consumer) {
         if (filter == RecipeFilter.ALWAYS_TRUE) {
             this.originalRecipes.forEach(consumer);
         } else if (filter != RecipeFilter.ALWAYS_FALSE) {
-            List<RecipeJS> filtered = LamdbaExceptionUtils.uncheck(() -> ModUtil.commonPool.submit(() -> this.originalRecipes.parallelStream().filter(filter).collect(Collectors.toList())).get());
+            if(this.mfix$recipeIndex == null)
+                this.mfix$recipeIndex = new KubeRecipeIndex(this.originalRecipes);
+            List<RecipeJS> candidates = this.mfix$recipeIndex.findCandidates(filter);
+            if(candidates == null)
+                candidates = this.originalRecipes;
+            List<RecipeJS> filtered;
+            if(candidates.size() < MIN_RECIPES_FOR_PARALLEL_FILTER)
+                filtered = candidates.stream().filter(filter).collect(Collectors.toList());
+            else {
+                List<RecipeJS> toFilter = candidates;
+                filtered = LamdbaExceptionUtils.uncheck(() -> ModUtil.commonPool.submit(() -> toFilter.parallelStream().filter(filter).collect(Collectors.toList())).get());
+            }
             filtered.forEach(consumer);
+            /* the consumer came from a script or from replaceOutput, so outputs may have changed */
+            if(!this.mfix$preservingOutputs && !filtered.isEmpty())
+                this.mfix$recipeIndex.invalidateOutputs();
+        }
+    }
+
+    private static final int MIN_RECIPES_FOR_PARALLEL_FILTER = 256;
+
+    /**
+     * remove and replaceInput never change outputs, so the output index can be kept. The flag is restored in a
+     * finally block, since KubeJS keeps the event going when a script filter throws.
+     */
+    @Redirect(method = { "remove*", "replaceInput*" }, at = @At(value = "INVOKE", target = "Ldev/latvian/kubejs/recipe/RecipeEventJS;forEachRecipe(Ldev/latvian/kubejs/recipe/filter/RecipeFilter;Ljava/util/function/Consumer;)V"), remap = false)
+    private void forEachRecipePreservingOutputs(RecipeEventJS event, RecipeFilter filter, Consumer<RecipeJS> consumer) {
+        boolean wasPreserving = this.mfix$preservingOutputs;
+        this.mfix$preservingOutputs = true;
+        try {
+            this.forEachRecipe(filter, consumer);
+        } finally {
+            this.mfix$preservingOutputs = wasPreserving;
         }
     }
 
@@ -56,6 +92,7 @@ public class RecipeEventJSMixin {
     @Inject(method = "post(Lnet/minecraft/world/item/crafting/RecipeManager;Ljava/util/Map;)V", at = @At("RETURN"))
     private void clearRecipeRegistry(RecipeManager manager, Map<ResourceLocation, JsonObject> jsonMap, CallbackInfo ci) {
         KubeUtil.originalRecipesByHash.clear();
+        this.mfix$recipeIndex = null;
     }
 
     /**
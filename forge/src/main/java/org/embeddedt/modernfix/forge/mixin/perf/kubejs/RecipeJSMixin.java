@@ -8,6 +8,7 @@ import net.minecraft.world.item.ItemStack;
 import net.minecraft.world.item.crafting.Recipe;
 import org.embeddedt.modernfix.annotation.RequiresMod;
 import org.embeddedt.modernfix.duck.ICachedIngredientJS;
+import org.embeddedt.modernfix.forge.util.KubeUtil;
 import org.spongepowered.asm.mixin.Mixin;
 import org.spongepowered.asm.mixin.injection.At;
 import org.spongepowered.asm.mixin.injection.Redirect;
@@ -30,7 +31,11 @@ public class RecipeJSMixin {
 
     @Redirect(method = "*", at = @At(value = "INVOKE", target = "Ldev/latvian/kubejs/item/ingredient/IngredientJS;anyStackMatches(Ldev/latvian/kubejs/item/ingredient/IngredientJS;)Z", remap = false))
     private boolean optimizeMatching(IngredientJS target, IngredientJS given) {
-        if((target instanceof TagIngredientJS && given instanceof ItemStackJS) || !(target instanceof ICachedIngredientJS)) {
+        if(target instanceof TagIngredientJS && given instanceof TagIngredientJS) {
+            /* two tags match if they share any item */
+            KubeUtil.ReloadCaches caches = KubeUtil.caches();
+            return caches.getItemIds(((TagIngredientJS)target).getActualTag()).intersects(caches.getItemIds(((TagIngredientJS)given).getActualTag()));
+        } else if((target instanceof TagIngredientJS && given instanceof ItemStackJS) || !(target instanceof ICachedIngredientJS)) {
             /* we already have an optimized code path for this */
             return target.anyStackMatches(given);
         } else {
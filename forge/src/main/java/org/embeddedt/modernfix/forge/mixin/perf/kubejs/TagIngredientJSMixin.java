@@ -37,10 +37,10 @@ public abstract class TagIngredientJSMixin implements ICachedIngredientJS {
     @Override
     public Set<ItemStackJS> getCachedStacks() {
         Tag<Item> ourTag = this.getActualTag();
-        Set<ItemStackJS> itemSet = KubeUtil.tagItemCache.get(ourTag);
+        Set<ItemStackJS> itemSet = KubeUtil.caches().tagItemCache.get(ourTag);
         if(itemSet == null) {
             itemSet = this.getStacks();
-            KubeUtil.tagItemCache.put(ourTag, itemSet);
+            KubeUtil.caches().tagItemCache.put(ourTag, itemSet);
         }
         return itemSet;
     }
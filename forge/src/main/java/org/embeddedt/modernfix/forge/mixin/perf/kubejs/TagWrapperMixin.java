@@ -31,14 +31,15 @@ public class TagWrapperMixin<T> {
     private Set<ResourceLocation> getCachedIds(Registry<T> registryIn) {
         if(currentPatternStr == null)
             throw new AssertionError();
-        Set<ResourceLocation> cachedSet = KubeUtil.matchedIdsForRegex.get(currentPatternStr);
+        Map<String, Set<ResourceLocation>> regexCache = KubeUtil.caches().matchedIdsForRegex;
+        Set<ResourceLocation> cachedSet = regexCache.get(currentPatternStr);
         if(cachedSet == null) {
             Pattern thePattern = UtilsJS.parseRegex(currentPatternStr);
             ArrayList<ResourceLocation> locations = new ArrayList<>(registryIn.getIds());
             cachedSet = locations.parallelStream()
                     .filter(rLoc -> thePattern.matcher(rLoc.toString()).find())
                     .collect(Collectors.toSet());
-            KubeUtil.matchedIdsForRegex.put(currentPatternStr, cachedSet);
+            regexCache.put(currentPatternStr, cachedSet);
         }
         return cachedSet;
     }
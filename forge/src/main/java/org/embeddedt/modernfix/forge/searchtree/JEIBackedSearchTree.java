@@ -8,16 +8,23 @@ import net.minecraft.world.item.ItemStack;
 import org.embeddedt.modernfix.forge.mixin.perf.blast_search_trees.IngredientFilterInvoker;
 import org.embeddedt.modernfix.searchtree.DummySearchTree;
 
-import java.util.ArrayList;
-import java.util.List;
+import java.util.*;
 
 /**
  * Uses JEI to handle search tree lookups.
  */
 public class JEIBackedSearchTree extends DummySearchTree<ItemStack> {
+    private static final int MAX_CACHED_QUERIES = 16;
+
     private final boolean filteringByTag;
-    private String lastSearchText = "";
-    private final List<ItemStack> listCache = new ArrayList<>();
+    /* Recent results, most recently used last. Tag and name searches use separate trees, so they never mix. */
+    private final LinkedHashMap<String, List<ItemStack>> resultCache = new LinkedHashMap<String, List<ItemStack>>(MAX_CACHED_QUERIES, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, List<ItemStack>> eldest) {
+            return size() > MAX_CACHED_QUERIES;
+        }
+    };
+    private IngredientFilter cachedFilter = null;
 
     public JEIBackedSearchTree(boolean filteringByTag) {
         this.filteringByTag = filteringByTag;
@@ -33,17 +40,47 @@ public class JEIBackedSearchTree extends DummySearchTree<ItemStack> {
         }
     }
 
+    /**
+     * JEI ANDs space-separated terms and every term is a substring match, so appending characters can only
+     * narrow the results, unless the query contains alternation, negation or quoting.
+     */
+    private static boolean isNarrowingExtension(String cachedQuery, String newQuery) {
+        if(!newQuery.startsWith(cachedQuery))
+            return false;
+        for(int i = 0; i < newQuery.length(); i++) {
+            char c = newQuery.charAt(i);
+            if(c == '|' || c == '-' || c == '"')
+                return false;
+        }
+        return true;
+    }
+
     private List<ItemStack> searchJEI(IngredientFilter filter, String pSearchText) {
-        if(!pSearchText.equals(lastSearchText)) {
-            listCache.clear();
+        if(filter != cachedFilter) {
+            /* JEI was restarted, the old results may refer to a different ingredient list */
+            resultCache.clear();
+            cachedFilter = filter;
+        }
+        List<ItemStack> results = resultCache.get(pSearchText);
+        if(results != null)
+            return results;
+        for(Map.Entry<String, List<ItemStack>> entry : resultCache.entrySet()) {
+            /* nothing can match a more specific query if the broader one had no results */
+            if(entry.getValue().isEmpty() && isNarrowingExtension(entry.getKey(), pSearchText)) {
+                results = Collections.emptyList();
+                break;
+            }
+        }
+        if(results == null) {
+            results = new ArrayList<>();
             List<IIngredientListElementInfo<?>> ingredients = ((IngredientFilterInvoker)filter).invokeGetIngredientListUncached(filteringByTag ? ("$" + pSearchText) : pSearchText);
             for(IIngredientListElementInfo<?> ingredient : ingredients) {
                 if(ingredient.getElement().getIngredient() instanceof ItemStack) {
-                    listCache.add((ItemStack)ingredient.getElement().getIngredient());
+                    results.add((ItemStack)ingredient.getElement().getIngredient());
                 }
             }
-            lastSearchText = pSearchText;
         }
-        return listCache;
+        resultCache.put(pSearchText, results);
+        return results;
     }
 }
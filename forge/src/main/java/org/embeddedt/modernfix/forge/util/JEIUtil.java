@@ -1,28 +1,109 @@
 package org.embeddedt.modernfix.forge.util;
 
+import com.google.common.hash.Hasher;
+import com.google.common.hash.Hashing;
 import com.mojang.blaze3d.vertex.PoseStack;
 import net.minecraft.client.Minecraft;
+import net.minecraft.client.gui.Font;
 import net.minecraft.client.gui.Gui;
+import net.minecraft.core.Registry;
 import net.minecraft.network.chat.TranslatableComponent;
+import net.minecraft.resources.ResourceLocation;
+import net.minecraft.tags.SerializationTags;
+import net.minecraft.tags.Tag;
+import net.minecraft.tags.TagCollection;
+import net.minecraft.world.item.ItemStack;
+import net.minecraft.world.item.crafting.Ingredient;
+import net.minecraft.world.item.crafting.Recipe;
 import net.minecraftforge.client.event.GuiScreenEvent;
 import net.minecraftforge.common.MinecraftForge;
 import net.minecraftforge.eventbus.api.SubscribeEvent;
+import net.minecraftforge.fml.ModList;
+import org.embeddedt.modernfix.ModernFix;
+import org.embeddedt.modernfix.jei.async.JEIReloadThread;
 
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
 import java.util.function.Supplier;
 
 public class JEIUtil {
-    private static Supplier<Boolean> isLoading = null;
+    private static Supplier<JEIReloadThread> loadingThread = null;
 
-    public static void registerLoadingRenderer(Supplier<Boolean> isLoading) {
-        JEIUtil.isLoading = isLoading;
+    public static void registerLoadingRenderer(Supplier<JEIReloadThread> loadingThread) {
+        JEIUtil.loadingThread = loadingThread;
         MinecraftForge.EVENT_BUS.register(JEIUtil.class);
     }
 
     @SubscribeEvent
     public static void renderLoad(GuiScreenEvent.DrawScreenEvent.Post event) {
         /* Don't show the JEI indicator on the level loading screen, that looks weird */
-        if(isLoading.get()) {
-            Gui.drawString(new PoseStack(), Minecraft.getInstance().font, new TranslatableComponent("modernfix.jei_load"), 0, 0, 0xffffff);
+        JEIReloadThread thread = loadingThread.get();
+        if(thread != null) {
+            Font font = Minecraft.getInstance().font;
+            PoseStack stack = new PoseStack();
+            Gui.drawString(stack, font, new TranslatableComponent("modernfix.jei_load"), 0, 0, 0xffffff);
+            String status = thread.getStatus();
+            if(status != null)
+                Gui.drawString(stack, font, status, 0, font.lineHeight + 1, 0xaaaaaa);
+        }
+    }
+
+    /**
+     * Computes a fingerprint of everything JEI derives its ingredient list, recipe registry and search index from:
+     * the mod list, the client's recipes and tags, and the selected language and resource packs. If two starts
+     * produce the same fingerprint, JEI would build exactly the same runtime.
+     * @return the fingerprint, or null if it could not be computed
+     */
+    public static String computeContentFingerprint() {
+        Minecraft mc = Minecraft.getInstance();
+        if(mc.level == null)
+            return null;
+        try {
+            Hasher hasher = Hashing.sha256().newHasher();
+            ModList.get().forEachModContainer((modId, container) -> {
+                hasher.putString(modId, StandardCharsets.UTF_8);
+                hasher.putString(container.getModInfo().getVersion().toString(), StandardCharsets.UTF_8);
+            });
+            hasher.putString(mc.getLanguageManager().getSelected().getCode(), StandardCharsets.UTF_8);
+            for(String pack : mc.options.resourcePacks) {
+                hasher.putString(pack, StandardCharsets.UTF_8);
+            }
+            List<Recipe<?>> recipes = new ArrayList<>(mc.level.getRecipeManager().getRecipes());
+            recipes.sort(Comparator.comparing(Recipe::getId));
+            for(Recipe<?> recipe : recipes) {
+                hasher.putString(recipe.getId().toString(), StandardCharsets.UTF_8);
+                hasher.putString(String.valueOf(Registry.RECIPE_SERIALIZER.getKey(recipe.getSerializer())), StandardCharsets.UTF_8);
+                ItemStack result = recipe.getResultItem();
+                if(result != null) {
+                    hasher.putString(result.toString(), StandardCharsets.UTF_8);
+                    if(result.getTag() != null)
+                        hasher.putString(result.getTag().toString(), StandardCharsets.UTF_8);
+                }
+                for(Ingredient ingredient : recipe.getIngredients()) {
+                    hasher.putString(ingredient.toJson().toString(), StandardCharsets.UTF_8);
+                }
+            }
+            hashTags(hasher, SerializationTags.getInstance().getItems(), Registry.ITEM);
+            hashTags(hasher, SerializationTags.getInstance().getBlocks(), Registry.BLOCK);
+            hashTags(hasher, SerializationTags.getInstance().getFluids(), Registry.FLUID);
+            return hasher.hash().toString();
+        } catch(RuntimeException e) {
+            ModernFix.LOGGER.debug("Unable to fingerprint JEI content", e);
+            return null;
+        }
+    }
+
+    private static <T> void hashTags(Hasher hasher, TagCollection<T> collection, Registry<T> registry) {
+        List<Map.Entry<ResourceLocation, Tag<T>>> tags = new ArrayList<>(collection.getAllTags().entrySet());
+        tags.sort(Map.Entry.comparingByKey());
+        for(Map.Entry<ResourceLocation, Tag<T>> entry : tags) {
+            hasher.putString(entry.getKey().toString(), StandardCharsets.UTF_8);
+            for(T value : entry.getValue().getValues()) {
+                hasher.putString(String.valueOf(registry.getKey(value)), StandardCharsets.UTF_8);
+            }
         }
     }
 }
@@ -0,0 +1,231 @@
+package org.embeddedt.modernfix.forge.util;
+
+import dev.latvian.kubejs.item.ItemStackJS;
+import dev.latvian.kubejs.item.ingredient.IngredientJS;
+import dev.latvian.kubejs.item.ingredient.TagIngredientJS;
+import dev.latvian.kubejs.recipe.RecipeJS;
+import dev.latvian.kubejs.recipe.filter.*;
+import it.unimi.dsi.fastutil.objects.Reference2IntOpenHashMap;
+import it.unimi.dsi.fastutil.objects.ReferenceOpenHashSet;
+import net.minecraft.resources.ResourceLocation;
+import net.minecraft.world.item.Item;
+import net.minecraft.world.item.ItemStack;
+import org.embeddedt.modernfix.ModernFix;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.util.*;
+
+/**
+ * Inverted indices over the original recipes of a recipe event, used to narrow down which recipes a filter
+ * can possibly match.
+ * <p></p>
+ * The index only ever produces a superset of the matching recipes; the caller is still expected to test each
+ * candidate against the filter. Filters whose shape is not understood make the lookup return null, in which
+ * case every recipe needs to be scanned.
+ */
+public class KubeRecipeIndex {
+    private static final Map<Class<?>, Map<Class<?>, Field>> FILTER_FIELDS = new HashMap<>();
+
+    private final List<RecipeJS> recipes;
+    private final Reference2IntOpenHashMap<RecipeJS> recipeOrdinals;
+    private final Map<ResourceLocation, List<RecipeJS>> recipesById = new HashMap<>();
+    private final Map<String, List<RecipeJS>> recipesByMod = new HashMap<>();
+    private final Map<String, List<RecipeJS>> recipesByType = new HashMap<>();
+    /* Outputs can be changed by scripts during the event, so this part is rebuilt on demand */
+    private Map<Item, List<RecipeJS>> recipesByOutput = null;
+    private List<RecipeJS> recipesWithUnknownOutput = null;
+
+    public KubeRecipeIndex(List<RecipeJS> recipes) {
+        this.recipes = recipes;
+        this.recipeOrdinals = new Reference2IntOpenHashMap<>(recipes.size());
+        for(int i = 0; i < recipes.size(); i++) {
+            RecipeJS recipe = recipes.get(i);
+            this.recipeOrdinals.put(recipe, i);
+            ResourceLocation id = recipe.getOrCreateId();
+            this.recipesById.computeIfAbsent(id, k -> new ArrayList<>(1)).add(recipe);
+            this.recipesByMod.computeIfAbsent(recipe.getMod(), k -> new ArrayList<>()).add(recipe);
+            this.recipesByType.computeIfAbsent(recipe.getType(), k -> new ArrayList<>()).add(recipe);
+        }
+    }
+
+    /**
+     * Must be called whenever recipe outputs may have been modified.
+     */
+    public void invalidateOutputs() {
+        this.recipesByOutput = null;
+        this.recipesWithUnknownOutput = null;
+    }
+
+    private void buildOutputIndex() {
+        Map<Item, List<RecipeJS>> byOutput = new HashMap<>();
+        List<RecipeJS> unknownOutput = new ArrayList<>();
+        Set<Item> outputItems = new ReferenceOpenHashSet<>();
+        for(RecipeJS recipe : recipes) {
+            outputItems.clear();
+            try {
+                for(ItemStackJS stack : recipe.outputItems) {
+                    outputItems.add(stack.getItem());
+                }
+                if(recipe.originalRecipe != null) {
+                    ItemStack result;
+                    synchronized (RecipeJS.class) {
+                        result = recipe.originalRecipe.getResultItem();
+                    }
+                    if(result != null)
+                        outputItems.add(result.getItem());
+                }
+            } catch(RuntimeException e) {
+                outputItems.clear();
+            }
+            if(outputItems.isEmpty())
+                unknownOutput.add(recipe);
+            else {
+                for(Item item : outputItems) {
+                    byOutput.computeIfAbsent(item, k -> new ArrayList<>()).add(recipe);
+                }
+            }
+        }
+        this.recipesByOutput = byOutput;
+        this.recipesWithUnknownOutput = unknownOutput;
+    }
+
+    /**
+     * @return a superset of the recipes matched by the filter, in their original order, or null if the filter
+     * cannot be answered using the index
+     */
+    public List<RecipeJS> findCandidates(RecipeFilter filter) {
+        if(filter instanceof IDFilter) {
+            ResourceLocation id = getFilterField(filter, ResourceLocation.class);
+            return id != null ? recipesById.getOrDefault(id, Collections.emptyList()) : null;
+        } else if(filter instanceof ModFilter) {
+            String mod = getFilterField(filter, String.class);
+            return mod != null ? recipesByMod.getOrDefault(mod, Collections.emptyList()) : null;
+        } else if(filter instanceof TypeFilter) {
+            String type = getFilterField(filter, String.class);
+            return type != null ? recipesByType.getOrDefault(type, Collections.emptyList()) : null;
+        } else if(filter instanceof OutputFilter) {
+            IngredientJS ingredient = getFilterField(filter, IngredientJS.class);
+            return ingredient != null ? findOutputCandidates(ingredient) : null;
+        } else if(filter instanceof AndFilter) {
+            List<RecipeFilter> children = getFilterField(filter, List.class);
+            return children != null ? intersect(children) : null;
+        } else if(filter instanceof OrFilter) {
+            List<RecipeFilter> children = getFilterField(filter, List.class);
+            return children != null ? union(children) : null;
+        }
+        return null;
+    }
+
+    private List<RecipeJS> findOutputCandidates(IngredientJS ingredient) {
+        Collection<Item> items;
+        /* only trust ingredients whose set of items is known exactly, regardless of NBT */
+        if(ingredient instanceof ItemStackJS)
+            items = Collections.singletonList(((ItemStackJS)ingredient).getItem());
+        else if(ingredient instanceof TagIngredientJS)
+            items = ((TagIngredientJS)ingredient).getActualTag().getValues();
+        else
+            return null;
+        if(recipesByOutput == null)
+            buildOutputIndex();
+        List<List<RecipeJS>> lists = new ArrayList<>();
+        lists.add(recipesWithUnknownOutput);
+        for(Item item : items) {
+            List<RecipeJS> list = recipesByOutput.get(item);
+            if(list != null)
+                lists.add(list);
+        }
+        return mergeInOrder(lists);
+    }
+
+    private List<RecipeJS> intersect(List<RecipeFilter> children) {
+        List<List<RecipeJS>> lists = new ArrayList<>();
+        for(RecipeFilter child : children) {
+            List<RecipeJS> candidates = findCandidates(child);
+            /* an unindexed child only narrows the result further, which the final test takes care of */
+            if(candidates != null)
+                lists.add(candidates);
+        }
+        if(lists.isEmpty())
+            return null;
+        lists.sort(Comparator.comparingInt(List::size));
+        List<RecipeJS> smallest = lists.get(0);
+        if(lists.size() == 1)
+            return smallest;
+        List<Set<RecipeJS>> others = new ArrayList<>();
+        for(int i = 1; i < lists.size(); i++) {
+            others.add(new ReferenceOpenHashSet<>(lists.get(i)));
+        }
+        List<RecipeJS> result = new ArrayList<>();
+        for(RecipeJS recipe : smallest) {
+            boolean inAll = true;
+            for(Set<RecipeJS> other : others) {
+                if(!other.contains(recipe)) {
+                    inAll = false;
+                    break;
+                }
+            }
+            if(inAll)
+                result.add(recipe);
+        }
+        return result;
+    }
+
+    private List<RecipeJS> union(List<RecipeFilter> children) {
+        List<List<RecipeJS>> lists = new ArrayList<>();
+        for(RecipeFilter child : children) {
+            List<RecipeJS> candidates = findCandidates(child);
+            /* any child that cannot be answered could match any recipe */
+            if(candidates == null)
+                return null;
+            lists.add(candidates);
+        }
+        return mergeInOrder(lists);
+    }
+
+    /**
+     * Merge several candidate lists, removing duplicates and restoring the original recipe order.
+     */
+    private List<RecipeJS> mergeInOrder(List<List<RecipeJS>> lists) {
+        if(lists.size() == 1)
+            return lists.get(0);
+        Set<RecipeJS> seen = new ReferenceOpenHashSet<>();
+        List<RecipeJS> result = new ArrayList<>();
+        for(List<RecipeJS> list : lists) {
+            for(RecipeJS recipe : list) {
+                if(seen.add(recipe))
+                    result.add(recipe);
+            }
+        }
+        result.sort(Comparator.comparingInt(recipeOrdinals::getInt));
+        return result;
+    }
+
+    /**
+     * Filter fields are looked up by type rather than name so that this keeps working across KubeJS versions.
+     */
+    @SuppressWarnings("unchecked")
+    private static <T> T getFilterField(RecipeFilter filter, Class<T> type) {
+        Map<Class<?>, Field> fieldsByType = FILTER_FIELDS.computeIfAbsent(filter.getClass(), k -> new HashMap<>());
+        Field field = fieldsByType.computeIfAbsent(type, k -> {
+            for(Field f : filter.getClass().getDeclaredFields()) {
+                if(!Modifier.isStatic(f.getModifiers()) && type.isAssignableFrom(f.getType())) {
+                    try {
+                        f.setAccessible(true);
+                        return f;
+                    } catch(RuntimeException e) {
+                        ModernFix.LOGGER.debug("Couldn't access filter field", e);
+                    }
+                }
+            }
+            return null;
+        });
+        if(field == null)
+            return null;
+        try {
+            return (T)field.get(filter);
+        } catch(ReflectiveOperationException e) {
+            return null;
+        }
+    }
+}
@@ -2,6 +2,7 @@ package org.embeddedt.modernfix.forge.util;
 
 import dev.latvian.kubejs.item.ItemStackJS;
 import dev.latvian.kubejs.recipe.RecipeJS;
+import net.minecraft.core.Registry;
 import net.minecraft.resources.ResourceLocation;
 import net.minecraft.tags.Tag;
 import net.minecraft.world.item.Item;
@@ -10,18 +11,48 @@ import net.minecraftforge.event.AddReloadListenerEvent;
 import net.minecraftforge.eventbus.api.SubscribeEvent;
 
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
 
 public class KubeUtil {
-    public static final HashMap<String, Set<ResourceLocation>> matchedIdsForRegex = new HashMap<>();
-
     public static final HashMap<ResourceLocation, RecipeJS> originalRecipesByHash = new HashMap<>();
-    public static Map<Ingredient, Set<ItemStackJS>> ingredientItemCache = Collections.synchronizedMap(new WeakHashMap<>());
-    public static Map<Tag<Item>, Set<ItemStackJS>> tagItemCache = Collections.synchronizedMap(new WeakHashMap<>());
+
+    private static volatile ReloadCaches currentCaches = new ReloadCaches();
+
+    /**
+     * Returns the caches for the current reload. These are read from the parallel recipe filtering, so they
+     * must not be locked; clearing them is done by swapping in a fresh instance.
+     */
+    public static ReloadCaches caches() {
+        return currentCaches;
+    }
 
     @SubscribeEvent
     public static void clearRegexCache(AddReloadListenerEvent event) {
-        matchedIdsForRegex.clear();
-        ingredientItemCache.clear();
-        tagItemCache.clear();
+        currentCaches = new ReloadCaches();
+    }
+
+    public static class ReloadCaches {
+        /* Neither Ingredient nor the tag implementations override equals, so these are effectively identity-keyed */
+        public final Map<String, Set<ResourceLocation>> matchedIdsForRegex = new ConcurrentHashMap<>();
+        public final Map<Ingredient, Set<ItemStackJS>> ingredientItemCache = new ConcurrentHashMap<>();
+        public final Map<Tag<Item>, Set<ItemStackJS>> tagItemCache = new ConcurrentHashMap<>();
+        private final Map<Tag<Item>, BitSet> tagItemIds = new ConcurrentHashMap<>();
+
+        /**
+         * @return the set of raw item IDs contained in the given tag. The caller must not modify it.
+         */
+        public BitSet getItemIds(Tag<Item> tag) {
+            BitSet ids = tagItemIds.get(tag);
+            if(ids == null) {
+                ids = new BitSet();
+                for(Item item : tag.getValues()) {
+                    int id = Registry.ITEM.getId(item);
+                    if(id >= 0)
+                        ids.set(id);
+                }
+                tagItemIds.put(tag, ids);
+            }
+            return ids;
+        }
     }
 }
@@ -0,0 +1,207 @@
+package org.embeddedt.modernfix.forge.util;
+
+import com.google.common.base.Stopwatch;
+import com.google.common.collect.ImmutableSet;
+import mezz.jei.api.IModPlugin;
+import mezz.jei.api.registration.IRecipeCatalystRegistration;
+import mezz.jei.api.registration.IRecipeRegistration;
+import mezz.jei.plugins.vanilla.VanillaPlugin;
+import net.minecraft.client.Minecraft;
+import org.embeddedt.modernfix.ModernFix;
+import org.embeddedt.modernfix.core.ModernFixMixinPlugin;
+import org.embeddedt.modernfix.forge.ModernFixConfig;
+import org.embeddedt.modernfix.jei.async.IAsyncJeiStarter;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.Consumer;
+
+/**
+ * Runs JEI plugin registration phases whose plugins cannot observe each other's registrations on a thread pool.
+ * <p>
+ * Each plugin gets a recording proxy of the registrar instead of the real one. Once all plugins have finished, the
+ * recorded calls are replayed on the JEI thread in the original plugin order, so the registrar itself never sees
+ * concurrent access and the result is identical to a sequential run.
+ */
+public class ParallelPluginCaller {
+    private static final boolean ENABLED = ModernFixMixinPlugin.instance.isOptionEnabled("perf.async_jei.parallel_registration.ParallelPluginCaller");
+
+    /**
+     * Registrar types whose registrations are write-only, so running plugins out of order cannot change what they see.
+     */
+    private static final Set<Class<?>> PARALLEL_SAFE_REGISTRARS = ImmutableSet.of(
+            IRecipeRegistration.class,
+            IRecipeCatalystRegistration.class
+    );
+
+    /**
+     * Try to run the given phase in parallel.
+     * @return true if the phase was handled, false if the caller should run it sequentially
+     */
+    public static boolean tryCallOnPlugins(String title, List<IModPlugin> plugins, Consumer<IModPlugin> func) {
+        if(!ENABLED || plugins.size() < 2)
+            return false;
+        /* find out which plugin method this phase calls, and with what registrar */
+        ProbeHandler probe = new ProbeHandler();
+        try {
+            func.accept((IModPlugin)Proxy.newProxyInstance(IModPlugin.class.getClassLoader(), new Class<?>[] { IModPlugin.class }, probe));
+        } catch(RuntimeException e) {
+            return false;
+        }
+        if(probe.calls != 1 || probe.method == null || !PARALLEL_SAFE_REGISTRARS.contains(probe.method.getParameterTypes()[0]))
+            return false;
+        Method method = probe.method;
+        Object registrar = probe.argument;
+        Class<?> registrarType = method.getParameterTypes()[0];
+        ModernFix.LOGGER.info("{} (in parallel)...", title);
+        Stopwatch stopwatch = Stopwatch.createStarted();
+        List<CompletableFuture<List<RecordedCall>>> futures = new ArrayList<>(plugins.size());
+        for(IModPlugin plugin : plugins) {
+            boolean onMainThread = ModernFixConfig.getJeiPluginBlacklist().contains(plugin.getPluginUid());
+            futures.add(CompletableFuture.supplyAsync(() -> {
+                RecordingHandler recorder = new RecordingHandler(registrar);
+                Object proxy = Proxy.newProxyInstance(registrarType.getClassLoader(), new Class<?>[] { registrarType }, recorder);
+                if(onMainThread)
+                    Minecraft.getInstance().executeBlocking(() -> invoke(method, plugin, proxy));
+                else
+                    invoke(method, plugin, proxy);
+                return recorder.calls;
+            }, ModUtil.commonPool));
+        }
+        List<IModPlugin> failedPlugins = new ArrayList<>();
+        for(int i = 0; i < plugins.size(); i++) {
+            IModPlugin plugin = plugins.get(i);
+            IAsyncJeiStarter.setCurrentPlugin(plugin.getPluginUid().toString());
+            try {
+                List<RecordedCall> calls = futures.get(i).join();
+                IAsyncJeiStarter.checkForLoadInterruption();
+                for(RecordedCall call : calls) {
+                    invoke(call.method, registrar, call.arguments);
+                }
+            } catch(RuntimeException | LinkageError e) {
+                Throwable cause = e instanceof CompletionException && e.getCause() != null ? e.getCause() : e;
+                if(plugin instanceof VanillaPlugin) {
+                    if(cause instanceof RuntimeException)
+                        throw (RuntimeException)cause;
+                    throw e;
+                }
+                ModernFix.LOGGER.error("Caught an error from mod plugin: {} {}", plugin.getClass(), plugin.getPluginUid(), cause);
+                failedPlugins.add(plugin);
+            }
+            IAsyncJeiStarter.reportProgress();
+        }
+        /* match JEI, which drops plugins that fail during registration */
+        plugins.removeAll(failedPlugins);
+        ModernFix.LOGGER.info("{} took {}", title, stopwatch);
+        return true;
+    }
+
+    private static void invoke(Method method, Object target, Object... args) {
+        try {
+            method.invoke(target, args);
+        } catch(IllegalAccessException e) {
+            throw new IllegalStateException(e);
+        } catch(InvocationTargetException e) {
+            Throwable cause = e.getCause();
+            if(cause instanceof RuntimeException)
+                throw (RuntimeException)cause;
+            if(cause instanceof Error)
+                throw (Error)cause;
+            throw new RuntimeException(cause);
+        }
+    }
+
+    private static Object defaultValue(Class<?> type) {
+        if(!type.isPrimitive() || type == void.class)
+            return null;
+        if(type == boolean.class)
+            return false;
+        if(type == char.class)
+            return '\0';
+        if(type == long.class)
+            return 0L;
+        if(type == float.class)
+            return 0f;
+        if(type == double.class)
+            return 0d;
+        if(type == byte.class)
+            return (byte)0;
+        if(type == short.class)
+            return (short)0;
+        return 0;
+    }
+
+    private static Object handleObjectMethod(Object proxy, Method method, Object[] args) {
+        switch(method.getName()) {
+            case "equals":
+                return proxy == args[0];
+            case "hashCode":
+                return System.identityHashCode(proxy);
+            default:
+                return proxy.getClass().getName() + "@" + Integer.toHexString(System.identityHashCode(proxy));
+        }
+    }
+
+    private static class ProbeHandler implements InvocationHandler {
+        int calls = 0;
+        Method method;
+        Object argument;
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) {
+            if(method.getDeclaringClass() == Object.class)
+                return handleObjectMethod(proxy, method, args);
+            calls++;
+            if(args != null && args.length == 1 && method.getReturnType() == void.class) {
+                this.method = method;
+                this.argument = args[0];
+            }
+            return defaultValue(method.getReturnType());
+        }
+    }
+
+    private static class RecordedCall {
+        final Method method;
+        final Object[] arguments;
+
+        RecordedCall(Method method, Object[] arguments) {
+            this.method = method;
+            this.arguments = arguments;
+        }
+    }
+
+    private static class RecordingHandler implements InvocationHandler {
+        final Object target;
+        final List<RecordedCall> calls = new ArrayList<>();
+
+        RecordingHandler(Object target) {
+            this.target = target;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            if(method.getDeclaringClass() == Object.class)
+                return handleObjectMethod(proxy, method, args);
+            if(method.getReturnType() == void.class) {
+                /* registrations are deferred until the merge, in plugin order */
+                synchronized(calls) {
+                    calls.add(new RecordedCall(method, args == null ? new Object[0] : args.clone()));
+                }
+                return null;
+            }
+            /* getters such as getJeiHelpers() are read-only, pass them through */
+            try {
+                return method.invoke(target, args);
+            } catch(InvocationTargetException e) {
+                throw e.getCause();
+            }
+        }
+    }
+}
@@ -18,12 +18,15 @@ import net.minecraftforge.api.distmarker.Dist;
 import net.minecraftforge.client.ForgeHooksClient;
 import net.minecraftforge.common.MinecraftForge;
 import net.minecraftforge.event.RegisterCommandsEvent;
+import net.minecraftforge.fml.ModList;
 import net.minecraftforge.fml.ModLoader;
 import net.minecraftforge.fml.loading.FMLLoader;
 import net.minecraftforge.fml.loading.FMLPaths;
 import net.minecraftforge.fml.loading.LoadingModList;
+import net.minecraftforge.fml.loading.moddiscovery.ModFileInfo;
 import net.minecraftforge.fml.loading.moddiscovery.ModInfo;
 import net.minecraftforge.fml.network.PacketDistributor;
+import net.minecraftforge.forgespi.language.IModInfo;
 import net.minecraftforge.fml.server.ServerLifecycleHooks;
 import org.embeddedt.modernfix.core.ModernFixMixinPlugin;
 import org.embeddedt.modernfix.api.constants.IntegrationConstants;
@@ -45,6 +48,7 @@ import java.lang.reflect.Field;
 import java.lang.reflect.Method;
 import java.net.URL;
 import java.net.URLClassLoader;
+import java.nio.file.Files;
 import java.nio.file.Path;
 import java.util.Enumeration;
 import java.util.Map;
@@ -133,6 +137,24 @@ public class ModernFixPlatformHooksImpl {
         return FMLPaths.GAMEDIR.get();
     }
 
+    public static String getModListFingerprint() {
+        StringBuilder sb = new StringBuilder();
+        for(ModFileInfo fileInfo : ModList.get().getModFiles()) {
+            Path path = fileInfo.getFile().getFilePath();
+            sb.append(path).append(';');
+            try {
+                sb.append(Files.size(path)).append(';').append(Files.getLastModifiedTime(path).toMillis());
+            } catch(IOException e) {
+                sb.append("unknown");
+            }
+            for(IModInfo info : fileInfo.getMods()) {
+                sb.append(';').append(info.getModId()).append('@').append(info.getVersion());
+            }
+            sb.append('\n');
+        }
+        return sb.toString();
+    }
+
     public static void sendPacket(ServerPlayer player, Object packet) {
         PacketHandler.INSTANCE.send(PacketDistributor.PLAYER.with(() -> player), packet);
     }